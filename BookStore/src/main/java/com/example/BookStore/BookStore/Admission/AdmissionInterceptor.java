@@ -0,0 +1,138 @@
+package com.example.BookStore.BookStore.Admission;
+
+import com.example.BookStore.BookStore.Exception.RequestRejected;
+import com.example.BookStore.BookStore.Exception.RequestRejected.Reason;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the book endpoints. Each write endpoint has
+ * its own token bucket, as does each read endpoint when a read rate is given
+ * (a null readRate leaves reads unthrottled), and writes naming an
+ * ISBN also draw from a bucket for that ISBN, so one hot title cannot starve
+ * the rest. The rent and return handlers named in limitedHandlers then need a
+ * slot from the {@link AdaptiveConcurrencyLimiter}; long-running writes such
+ * as bulk imports are left out so their latency does not shrink the limit.
+ * A request that is refused gets 429, or 503 when the limiter is full, with a
+ * Retry-After; nothing waits in a queue.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+    private static final String ADMITTED_AT = AdmissionInterceptor.class.getName() + ".admittedAt";
+    private static final long OVERLOADED_RETRY_AFTER_SECONDS = 1;
+
+    public record Rate(double perSecond, double burst) {
+    }
+
+    private final Rate readRate;
+    private final Rate writeRate;
+    private final Rate isbnRate;
+    private final Set<String> limitedHandlers;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final Cache<String, TokenBucket> isbnBuckets;
+    private final Map<Reason, Counter> rejected = new EnumMap<>(Reason.class);
+
+    public AdmissionInterceptor(Rate readRate,
+                                Rate writeRate,
+                                Rate isbnRate,
+                                long isbnMaximumSize,
+                                Set<String> limitedHandlers,
+                                AdaptiveConcurrencyLimiter limiter,
+                                MeterRegistry meterRegistry) {
+        this.readRate = readRate;
+        this.writeRate = writeRate;
+        this.isbnRate = isbnRate;
+        this.limitedHandlers = Set.copyOf(limitedHandlers);
+        this.limiter = limiter;
+        // An idle bucket refills to its burst, so dropping it loses nothing.
+        this.isbnBuckets = Caffeine.newBuilder()
+                .maximumSize(isbnMaximumSize)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(isbnRate.burst() / isbnRate.perSecond() * 1e9)))
+                .build();
+        for (Reason reason : Reason.values()) {
+            rejected.put(reason, Counter.builder("bookstore.admission.rejected")
+                    .description("Requests refused by admission control")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        Gauge.builder("bookstore.admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Writes currently allowed in flight")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.admission.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        if (!write && readRate == null) {
+            return true;
+        }
+        long now = System.nanoTime();
+        String endpoint = request.getMethod() + ' ' + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Rate rate = write ? writeRate : readRate;
+        long wait = endpointBuckets.computeIfAbsent(endpoint, key -> new TokenBucket(rate.perSecond(), rate.burst(), now))
+                .tryAcquire(now);
+        if (wait > 0) {
+            throw reject(Reason.ENDPOINT_RATE, wait);
+        }
+        if (!write) {
+            return true;
+        }
+        String isbn = isbn(request);
+        if (isbn != null) {
+            wait = isbnBuckets.get(isbn, key -> new TokenBucket(isbnRate.perSecond(), isbnRate.burst(), now)).tryAcquire(now);
+            if (wait > 0) {
+                throw reject(Reason.ISBN_RATE, wait);
+            }
+        }
+        if (!limitedHandlers.contains(handlerMethod.getMethod().getName())) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            throw reject(Reason.OVERLOADED, TimeUnit.SECONDS.toNanos(OVERLOADED_RETRY_AFTER_SECONDS));
+        }
+        request.setAttribute(ADMITTED_AT, now);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED_AT) instanceof Long admittedAt) {
+            request.removeAttribute(ADMITTED_AT);
+            limiter.release(System.nanoTime() - admittedAt);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String isbn(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map ? ((Map<String, String>) map).get("isbn") : null;
+    }
+
+    private RequestRejected reject(Reason reason, long waitNanos) {
+        rejected.get(reason).increment();
+        return new RequestRejected(reason, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.BookStore.BookStore.Admission;
+
+/**
+ * Refills at a steady rate up to a burst size. A caller that finds it empty
+ * is told how long until the next token instead of waiting for it.
+ */
+public class TokenBucket {
+    private final double burst;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double ratePerSecond, double burst, long nowNanos) {
+        this.burst = burst;
+        this.tokensPerNano = ratePerSecond / 1e9;
+        this.tokens = burst;
+        this.refilledAt = nowNanos;
+    }
+
+    /**
+     * Takes a token and returns 0, or returns the nanoseconds until one will
+     * be available.
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        if (nowNanos > refilledAt) {
+            tokens = Math.min(burst, tokens + (nowNanos - refilledAt) * tokensPerNano);
+            refilledAt = nowNanos;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
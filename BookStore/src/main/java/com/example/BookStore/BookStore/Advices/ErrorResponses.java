@@ -0,0 +1,57 @@
+package com.example.BookStore.BookStore.Advices;
+
+import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Serialised {@link APIError} responses. The shared domain exceptions get a
+ * complete response built once, so the common misses skip Jackson entirely;
+ * any other message is serialised when it is thrown.
+ */
+public class ErrorResponses {
+    private final ObjectMapper objectMapper;
+    private final Map<RuntimeException, ResponseEntity<byte[]>> prebuilt = new IdentityHashMap<>();
+
+    public ErrorResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        prebuild(HttpStatus.NOT_FOUND, ResourceNotFound.ISBN_NOT_FOUND, ResourceNotFound.NO_BOOK_OF_ISBN,
+                ResourceNotFound.NO_BOOK_OF_NAME, ResourceNotFound.NO_BOOKS, ResourceNotFound.NOTHING_RENTED,
+                ResourceNotFound.NO_RESERVATION);
+        prebuild(HttpStatus.CONFLICT, ResourceNotAvailable.ALL_RENTED, ResourceNotAvailable.HAS_RENTED_OR_HELD_COPIES,
+                ResourceAlreadyExist.ISBN_PRESENT);
+    }
+
+    private void prebuild(HttpStatus status, RuntimeException... exceptions) {
+        for (RuntimeException e : exceptions) {
+            prebuilt.put(e, build(status, e.getMessage()));
+        }
+    }
+
+    public ResponseEntity<byte[]> of(HttpStatus status, RuntimeException e) {
+        ResponseEntity<byte[]> response = prebuilt.get(e);
+        return response != null ? response : build(status, e.getMessage());
+    }
+
+    private ResponseEntity<byte[]> build(HttpStatus status, String message) {
+        APIError apiError = APIError.builder()
+                .status(status)
+                .errMsg(message)
+                .build();
+        try {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(apiError));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode error response", e);
+        }
+    }
+}
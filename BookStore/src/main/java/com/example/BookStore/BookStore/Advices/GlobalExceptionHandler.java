@@ -1,33 +1,57 @@
 package com.example.BookStore.BookStore.Advices;
 
+import com.example.BookStore.BookStore.Exception.RequestRejected;
 import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
 import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private final ErrorResponses errorResponses;
+
+    public GlobalExceptionHandler(ObjectMapper objectMapper) {
+        this.errorResponses = new ErrorResponses(objectMapper);
+    }
+
     @ExceptionHandler(ResourceNotFound.class)
-    private ResponseEntity<APIError> handleResourceNotFound(ResourceNotFound e){
-        APIError apiError = APIError.builder()
-                .status(HttpStatus.NOT_FOUND)
-                .errMsg(e.getMessage())
-                .build();
-        return new ResponseEntity<>(apiError,apiError.getStatus());
+    private ResponseEntity<byte[]> handleResourceNotFound(ResourceNotFound e){
+        return errorResponses.of(HttpStatus.NOT_FOUND, e);
+    }
+    @ExceptionHandler(ResourceNotAvailable.class)
+    private ResponseEntity<byte[]> handleResourceNotAvailable(ResourceNotAvailable e){
+        return errorResponses.of(HttpStatus.CONFLICT, e);
     }
     @ExceptionHandler(ResourceAlreadyExist.class)
-    private ResponseEntity<APIError> handleResourceAlreadyExist(ResourceAlreadyExist e){
+    private ResponseEntity<byte[]> handleResourceAlreadyExist(ResourceAlreadyExist e){
+        return errorResponses.of(HttpStatus.CONFLICT, e);
+    }
+    @ExceptionHandler(RequestRejected.class)
+    private ResponseEntity<byte[]> handleRequestRejected(RequestRejected e){
+        HttpStatus status = e.getReason() == RequestRejected.Reason.OVERLOADED ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+        ResponseEntity<byte[]> response = errorResponses.of(status, e);
+        return ResponseEntity.status(status)
+                .headers(response.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(response.getBody());
+    }
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    private ResponseEntity<APIError> handleMethodArgsNotValid(MethodArgumentNotValidException e){
         APIError apiError = APIError.builder()
                 .status(HttpStatus.BAD_REQUEST)
                 .errMsg(e.getMessage())
                 .build();
         return new ResponseEntity<>(apiError,apiError.getStatus());
     }
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    private ResponseEntity<APIError> handleMethodArgsNotValid(MethodArgumentNotValidException e){
+    @ExceptionHandler(WebExchangeBindException.class)
+    private ResponseEntity<APIError> handleWebExchangeBind(WebExchangeBindException e){
         APIError apiError = APIError.builder()
                 .status(HttpStatus.BAD_REQUEST)
                 .errMsg(e.getMessage())
@@ -0,0 +1,94 @@
+package com.example.BookStore.BookStore.Caches;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for ISBN lookups. Entries are private snapshots: callers
+ * always get a copy, so mutating a returned DTO never leaks into the cache.
+ * Writes evict the ISBN once their transaction has committed, ahead of any
+ * other after-commit listener, so caches built from this one (such as
+ * {@link BookResponseCache}) never reload a stale copy.
+ */
+@Component
+public class BookIsbnCache {
+    private final Cache<String, BookDTO> cache;
+    private final BookMapper bookMapper;
+
+    public BookIsbnCache(@Value("${bookstore.cache.isbn.maximum-size:10000}") long maximumSize,
+                         @Value("${bookstore.cache.isbn.ttl:30s}") Duration ttl,
+                         MeterRegistry meterRegistry,
+                         BookMapper bookMapper) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.bookMapper = bookMapper;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "book.isbn");
+    }
+
+    public BookDTO get(String isbn, Function<String, BookDTO> loader) {
+        return bookMapper.copy(cache.get(isbn, key -> bookMapper.copy(loader.apply(key))));
+    }
+
+    public BookDTO getIfPresent(String isbn) {
+        BookDTO cached = cache.getIfPresent(isbn);
+        return cached == null ? null : bookMapper.copy(cached);
+    }
+
+    public void invalidate(String isbn) {
+        cache.invalidate(isbn);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        invalidate(event.getIsbn());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksImported(BooksImportedEvent event) {
+        cache.invalidateAll(event.getIsbns());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (event.isAll()) {
+            invalidateAll();
+        } else {
+            cache.invalidateAll(event.getIsbns());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.BookStore.BookStore.Caches;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already-encoded JSON for the read endpoints, one cache per ISBN and one for
+ * catalog listings. A book change evicts its ISBN entry once the change has
+ * committed, after {@link BookIsbnCache} has evicted its copy; entries also
+ * expire after {@code ttl} as a backstop.
+ * <p>
+ * Listings are indexed by the ISBNs they contain, so a change evicts only the
+ * pages that show the book. A page's content is fixed by its keyset cursor, so
+ * other pages are unaffected. Listings a change can alter without containing
+ * the book (the whole catalog and the last page, which a new book joins) are
+ * open and evicted by every change.
+ */
+@Component
+public class BookResponseCache {
+    private final ObjectMapper objectMapper;
+    private final int gzipMinSize;
+    private final Cache<String, CachedJson> isbnResponses;
+    private final Cache<String, Listing> listResponses;
+    private final Map<String, Set<String>> listingsByIsbn = new ConcurrentHashMap<>();
+    private final Set<String> openListings = ConcurrentHashMap.newKeySet();
+    private final AtomicLong changes = new AtomicLong();
+
+    public BookResponseCache(ObjectMapper objectMapper,
+                             @Value("${bookstore.cache.responses.maximum-size:64MB}") DataSize maximumSize,
+                             @Value("${bookstore.cache.responses.gzip-min-size:1KB}") DataSize gzipMinSize,
+                             @Value("${bookstore.cache.responses.ttl:60s}") Duration ttl,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.gzipMinSize = Math.toIntExact(gzipMinSize.toBytes());
+        this.isbnResponses = build(maximumSize.toBytes() / 2, ttl);
+        this.listResponses = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes() / 2)
+                .weigher((String key, Listing value) -> value.json().weight())
+                .expireAfterWrite(ttl)
+                .evictionListener((String key, Listing value, RemovalCause cause) -> unindex(key, value))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, isbnResponses, "book.responses.isbn");
+            CaffeineCacheMetrics.monitor(registry, listResponses, "book.responses.list");
+        });
+    }
+
+    private static Cache<String, CachedJson> build(long maximumWeight, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, CachedJson value) -> value.weight())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached encoding of the book, or null if the loader found nothing.
+     */
+    public CachedJson isbn(String isbn, Supplier<?> loader) {
+        return isbnResponses.get(isbn, key -> encode(loader.get()));
+    }
+
+    /**
+     * Returns the cached encoding of a catalog listing, or null if the loader found nothing.
+     */
+    public CachedJson list(String key, Supplier<?> loader) {
+        boolean[] raced = new boolean[1];
+        Listing listing = listResponses.get(key, ignored -> {
+            long seen = changes.get();
+            Listing loaded = listing(loader.get());
+            if (loaded != null) {
+                index(key, loaded);
+            }
+            raced[0] = changes.get() != seen;
+            return loaded;
+        });
+        if (raced[0]) {
+            // A change committed while the page was read; it may have missed the index.
+            invalidateListing(key);
+        }
+        return listing == null ? null : listing.json();
+    }
+
+    public void invalidateAll() {
+        isbnResponses.invalidateAll();
+        invalidateListings();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        isbnResponses.invalidate(event.getIsbn());
+        invalidateListings(List.of(event.getIsbn()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksImported(BooksImportedEvent event) {
+        isbnResponses.invalidateAll(event.getIsbns());
+        invalidateListings(event.getIsbns());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (event.isAll()) {
+            isbnResponses.invalidateAll();
+            invalidateListings();
+        } else {
+            isbnResponses.invalidateAll(event.getIsbns());
+            invalidateListings(event.getIsbns());
+        }
+    }
+
+    private void invalidateListings(Collection<String> isbns) {
+        changes.incrementAndGet();
+        Set<String> keys = new HashSet<>(openListings);
+        for (String isbn : isbns) {
+            listingsByIsbn.computeIfPresent(isbn, (ignored, listings) -> {
+                keys.addAll(listings);
+                return listings;
+            });
+        }
+        keys.forEach(this::invalidateListing);
+    }
+
+    private void invalidateListings() {
+        changes.incrementAndGet();
+        listResponses.asMap().keySet().forEach(this::invalidateListing);
+    }
+
+    /**
+     * Unindexes under the entry's lock, so a reload of the same key cannot
+     * interleave with it.
+     */
+    private void invalidateListing(String key) {
+        listResponses.asMap().computeIfPresent(key, (ignored, listing) -> {
+            unindex(key, listing);
+            return null;
+        });
+    }
+
+    private void index(String key, Listing listing) {
+        if (listing.open()) {
+            openListings.add(key);
+        }
+        for (String isbn : listing.isbns()) {
+            listingsByIsbn.compute(isbn, (ignored, listings) -> {
+                Set<String> keys = listings == null ? new HashSet<>() : listings;
+                keys.add(key);
+                return keys;
+            });
+        }
+    }
+
+    private void unindex(String key, Listing listing) {
+        openListings.remove(key);
+        for (String isbn : listing.isbns()) {
+            listingsByIsbn.computeIfPresent(isbn, (ignored, listings) -> {
+                listings.remove(key);
+                return listings.isEmpty() ? null : listings;
+            });
+        }
+    }
+
+    /**
+     * A page is indexed by its books, and open when it has no next cursor.
+     * Anything else, such as the whole catalog, is open and unindexed.
+     */
+    private Listing listing(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof BookPageDTO page) {
+            return new Listing(encode(body), isbns(page.getBooks()), page.getNextCursor() == null);
+        }
+        return new Listing(encode(body), List.of(), true);
+    }
+
+    private static List<String> isbns(List<BookDTO> books) {
+        List<String> isbns = new ArrayList<>(books.size());
+        books.forEach(book -> isbns.add(book.getIsbn()));
+        return isbns;
+    }
+
+    private CachedJson encode(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedJson(json, json.length >= gzipMinSize ? gzip(json) : null,
+                    "\"0" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private record Listing(CachedJson json, List<String> isbns, boolean open) {
+    }
+}
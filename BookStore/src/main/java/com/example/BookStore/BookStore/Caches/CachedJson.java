@@ -0,0 +1,36 @@
+package com.example.BookStore.BookStore.Caches;
+
+/**
+ * An encoded response body with its strong ETag, plus a gzip variant when the
+ * body was large enough to be worth compressing.
+ */
+public record CachedJson(byte[] json, byte[] gzip, String etag) {
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public String etag(boolean gzipped) {
+        return gzipped ? etag.substring(0, etag.length() - 1) + "-gzip\"" : etag;
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so a W/ prefix on either side is ignored.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int weight() {
+        return json.length + (gzip == null ? 0 : gzip.length);
+    }
+}
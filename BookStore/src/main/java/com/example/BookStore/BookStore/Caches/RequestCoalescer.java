@@ -0,0 +1,110 @@
+package com.example.BookStore.BookStore.Caches;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-flight for reads: while one caller runs the query for a key, callers
+ * asking for the same key wait for that result instead of running their own.
+ * Only calls that overlap are merged; nothing is kept once the query returns.
+ * <p>
+ * A waiter gives up after bookstore.coalescing.max-wait and runs the query
+ * itself. An interrupted waiter stops waiting without affecting the others.
+ * If the leading caller is interrupted, its waiters retry rather than inherit
+ * the interruption. Errors from the query are shared like results.
+ */
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+    private final Map<String, Counter> timedOut = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(@Value("${bookstore.coalescing.enabled:true}") boolean enabled,
+                            @Value("${bookstore.coalescing.max-wait:2s}") Duration maxWait,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String description, String kind) {
+        return counters.computeIfAbsent(kind, k -> Counter.builder(name)
+                .description(description)
+                .tag("kind", k)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Runs {@code query} for {@code key} unless an identical one is in flight.
+     * Waiters get the leader's result through {@code share}, so a mutable
+     * result can be handed out as a private copy.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String kind, String key, Supplier<V> query, UnaryOperator<V> share) {
+        if (!enabled) {
+            return query.get();
+        }
+        String flightKey = kind + ':' + key;
+        while (true) {
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, mine);
+            if (leader == null) {
+                return lead(flightKey, mine, query);
+            }
+            counter(coalesced, "bookstore.reads.coalesced", "Reads answered by an identical query already in flight", kind).increment();
+            try {
+                return share.apply((V) leader.get(maxWaitNanos, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                counter(timedOut, "bookstore.reads.coalesced.timeouts", "Waits for an in-flight query that gave up and queried directly", kind).increment();
+                return query.get();
+            } catch (CancellationException e) {
+                // The leader was interrupted; try to lead or join the next flight.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for an in-flight " + kind + " query");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private <V> V lead(String flightKey, CompletableFuture<Object> mine, Supplier<V> query) {
+        V result;
+        try {
+            result = query.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, mine);
+            if (Thread.currentThread().isInterrupted()) {
+                mine.cancel(false);
+            } else {
+                mine.completeExceptionally(e);
+            }
+            throw e;
+        }
+        inFlight.remove(flightKey, mine);
+        mine.complete(result);
+        return result;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.BookStore.BookStore.Catalog;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Read-only catalog held in primitive columns instead of entity/DTO graphs.
+ * A 13-digit ISBN is packed into a long and found through an open-addressing
+ * long-to-slot table; names, authors and publishers are interned in a
+ * dictionary and stored as ids. Each book costs a few dozen bytes of column
+ * space; a DTO is only materialised for the response.
+ *
+ * <p>Writers are serialised; readers run optimistically under a
+ * {@link StampedLock} and retry under the read lock only if a write overlapped.
+ * Slots of deleted books stay dead (and are revived if the ISBN comes back),
+ * so iteration order is load order.
+ */
+public class CatalogSnapshot {
+    private static final int FREE = -1;
+    private static final int NO_STRING = -1;
+    private static final int NO_INT = Integer.MIN_VALUE;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final Map<String, Integer> textKeys = new HashMap<>();
+    private String[] strings = new String[256];
+    private int stringCount;
+
+    private long[] keys;
+    private int[] keySlots;
+    private int keyCount;
+
+    private long[] isbns;
+    private int[] isbnTexts;
+    private int[] names;
+    private int[] authors;
+    private int[] publishers;
+    private double[] securityAmounts;
+    private double[] prices;
+    private int[] totalQuantities;
+    private int[] availableQuantities;
+    private int[] rentedQuantities;
+    private boolean[] live;
+    private int slotCount;
+    private int liveCount;
+
+    public CatalogSnapshot() {
+        this(1024);
+    }
+
+    public CatalogSnapshot(int expectedBooks) {
+        int capacity = Math.max(16, expectedBooks);
+        keys = new long[tableSize(capacity)];
+        keySlots = new int[keys.length];
+        Arrays.fill(keySlots, FREE);
+        resizeColumns(capacity);
+    }
+
+    public void upsert(BookDTO book) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(book.getIsbn());
+            if (slot == FREE) {
+                slot = newSlot(book.getIsbn());
+            }
+            if (!live[slot]) {
+                live[slot] = true;
+                liveCount++;
+            }
+            names[slot] = intern(book.getName());
+            authors[slot] = intern(book.getAuthor());
+            publishers[slot] = intern(book.getPublisher());
+            securityAmounts[slot] = book.getSecurityAmount() == null ? Double.NaN : book.getSecurityAmount();
+            prices[slot] = book.getPrice() == null ? Double.NaN : book.getPrice();
+            totalQuantities[slot] = book.getTotalQuantity() == null ? NO_INT : book.getTotalQuantity();
+            availableQuantities[slot] = book.getAvailableQuantity() == null ? NO_INT : book.getAvailableQuantity();
+            rentedQuantities[slot] = book.getRentedQuantity() == null ? NO_INT : book.getRentedQuantity();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String isbn) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotOf(isbn);
+            if (slot != FREE && live[slot]) {
+                live[slot] = false;
+                liveCount--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return read(() -> liveCount);
+    }
+
+    /**
+     * Returns a fresh DTO for the ISBN, or null when the catalog has no such book.
+     */
+    public BookDTO get(String isbn) {
+        return read(() -> {
+            int slot = slotOf(isbn);
+            return slot == FREE || !live[slot] ? null : materialise(slot);
+        });
+    }
+
+    public List<BookDTO> findByName(String name) {
+        return read(() -> {
+            Integer id = stringIds.get(name);
+            if (id == null) {
+                return List.of();
+            }
+            List<BookDTO> books = new ArrayList<>();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (names[slot] == id && live[slot]) {
+                    books.add(materialise(slot));
+                }
+            }
+            return books;
+        });
+    }
+
+    public List<BookDTO> findAll() {
+        return read(() -> {
+            List<BookDTO> books = new ArrayList<>(liveCount);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (live[slot]) {
+                    books.add(materialise(slot));
+                }
+            }
+            return books;
+        });
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private BookDTO materialise(int slot) {
+        return new BookDTO(
+                string(names[slot]),
+                string(authors[slot]),
+                isbnTexts[slot] == NO_STRING ? isbnText(isbns[slot]) : strings[isbnTexts[slot]],
+                string(publishers[slot]),
+                Double.isNaN(securityAmounts[slot]) ? null : securityAmounts[slot],
+                Double.isNaN(prices[slot]) ? null : prices[slot],
+                integer(totalQuantities[slot]),
+                integer(availableQuantities[slot]),
+                integer(rentedQuantities[slot]));
+    }
+
+    private static String isbnText(long isbn) {
+        String digits = Long.toString(isbn);
+        return digits.length() == 13 ? digits : "0".repeat(13 - digits.length()) + digits;
+    }
+
+    private String string(int id) {
+        return id == NO_STRING ? null : strings[id];
+    }
+
+    private static Integer integer(int value) {
+        return value == NO_INT ? null : value;
+    }
+
+    private int slotOf(String isbn) {
+        if (!isPackable(isbn)) {
+            Integer slot = textKeys.get(isbn);
+            return slot == null ? FREE : slot;
+        }
+        long key = Long.parseLong(isbn);
+        long[] table = keys;
+        int[] tableSlots = keySlots;
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask, probes = 0; probes < table.length; i = (i + 1) & mask, probes++) {
+            if (tableSlots[i] == FREE) {
+                return FREE;
+            }
+            if (table[i] == key) {
+                return tableSlots[i];
+            }
+        }
+        return FREE;
+    }
+
+    private int newSlot(String isbn) {
+        if (slotCount == live.length) {
+            resizeColumns(live.length * 2);
+        }
+        int slot = slotCount++;
+        if (isPackable(isbn)) {
+            isbns[slot] = Long.parseLong(isbn);
+            isbnTexts[slot] = NO_STRING;
+            if (++keyCount * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            insertKey(isbns[slot], slot);
+        } else {
+            isbnTexts[slot] = intern(isbn);
+            textKeys.put(isbn, slot);
+        }
+        return slot;
+    }
+
+    private void insertKey(long key, int slot) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keySlots[i] != FREE) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        keySlots[i] = slot;
+    }
+
+    private void rehash(int size) {
+        long[] oldKeys = keys;
+        int[] oldSlots = keySlots;
+        keys = new long[size];
+        keySlots = new int[size];
+        Arrays.fill(keySlots, FREE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != FREE) {
+                insertKey(oldKeys[i], oldSlots[i]);
+            }
+        }
+    }
+
+    private void resizeColumns(int capacity) {
+        isbns = isbns == null ? new long[capacity] : Arrays.copyOf(isbns, capacity);
+        isbnTexts = isbnTexts == null ? new int[capacity] : Arrays.copyOf(isbnTexts, capacity);
+        names = names == null ? new int[capacity] : Arrays.copyOf(names, capacity);
+        authors = authors == null ? new int[capacity] : Arrays.copyOf(authors, capacity);
+        publishers = publishers == null ? new int[capacity] : Arrays.copyOf(publishers, capacity);
+        securityAmounts = securityAmounts == null ? new double[capacity] : Arrays.copyOf(securityAmounts, capacity);
+        prices = prices == null ? new double[capacity] : Arrays.copyOf(prices, capacity);
+        totalQuantities = totalQuantities == null ? new int[capacity] : Arrays.copyOf(totalQuantities, capacity);
+        availableQuantities = availableQuantities == null ? new int[capacity] : Arrays.copyOf(availableQuantities, capacity);
+        rentedQuantities = rentedQuantities == null ? new int[capacity] : Arrays.copyOf(rentedQuantities, capacity);
+        live = live == null ? new boolean[capacity] : Arrays.copyOf(live, capacity);
+    }
+
+    private int intern(String value) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (stringCount == strings.length) {
+            strings = Arrays.copyOf(strings, strings.length * 2);
+        }
+        strings[stringCount] = value;
+        stringIds.put(value, stringCount);
+        return stringCount++;
+    }
+
+    private static boolean isPackable(String isbn) {
+        if (isbn == null || isbn.length() != 13) {
+            return false;
+        }
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(Math.max(16, capacity * 2) - 1) << 1;
+    }
+}
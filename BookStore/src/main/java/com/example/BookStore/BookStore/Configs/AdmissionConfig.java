@@ -0,0 +1,57 @@
+package com.example.BookStore.BookStore.Configs;
+
+import com.example.BookStore.BookStore.Admission.AdaptiveConcurrencyLimiter;
+import com.example.BookStore.BookStore.Admission.AdmissionInterceptor;
+import com.example.BookStore.BookStore.Admission.AdmissionInterceptor.Rate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(name = "bookstore.admission.enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter admissionConcurrencyLimiter(
+            @Value("${bookstore.admission.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${bookstore.admission.concurrency.min-limit:2}") int minLimit,
+            @Value("${bookstore.admission.concurrency.max-limit:200}") int maxLimit,
+            @Value("${bookstore.admission.concurrency.latency-threshold:100ms}") Duration latencyThreshold,
+            @Value("${bookstore.admission.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyThreshold, backoffRatio);
+    }
+
+    @Bean
+    public AdmissionInterceptor admissionInterceptor(
+            @Value("${bookstore.admission.read.rate:0}") double readRate,
+            @Value("${bookstore.admission.read.burst:4000}") double readBurst,
+            @Value("${bookstore.admission.write.rate:500}") double writeRate,
+            @Value("${bookstore.admission.write.burst:1000}") double writeBurst,
+            @Value("${bookstore.admission.isbn.rate:200}") double isbnRate,
+            @Value("${bookstore.admission.isbn.burst:400}") double isbnBurst,
+            @Value("${bookstore.admission.isbn.maximum-size:100000}") long isbnMaximumSize,
+            @Value("${bookstore.admission.concurrency.handlers:rentBook,returnBook,rentBooks,returnBooks,reserveBook,rentReservation,cancelReservation}") Set<String> limitedHandlers,
+            AdaptiveConcurrencyLimiter admissionConcurrencyLimiter,
+            MeterRegistry meterRegistry) {
+        return new AdmissionInterceptor(readRate > 0 ? new Rate(readRate, readBurst) : null, new Rate(writeRate, writeBurst), new Rate(isbnRate, isbnBurst),
+                isbnMaximumSize, limitedHandlers, admissionConcurrencyLimiter, meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer admissionWebMvcConfigurer(AdmissionInterceptor admissionInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(admissionInterceptor).addPathPatterns("/book/**").order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.BookStore.BookStore.Configs;
+
+import com.example.BookStore.BookStore.Events.BookEventLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "bookstore.events.log.enabled", havingValue = "true")
+public class EventLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public BookEventLog bookEventLog(@Value("${bookstore.events.log.directory:data/events}") Path directory,
+                                     @Value("${bookstore.events.log.segment-size:16MB}") DataSize segmentSize,
+                                     @Value("${bookstore.events.log.force-interval:10ms}") Duration forceInterval) throws IOException {
+        return new BookEventLog(directory, Math.toIntExact(segmentSize.toBytes()), forceInterval);
+    }
+}
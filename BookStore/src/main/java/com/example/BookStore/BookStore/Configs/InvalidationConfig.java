@@ -0,0 +1,51 @@
+package com.example.BookStore.BookStore.Configs;
+
+import com.example.BookStore.BookStore.Invalidation.InMemoryInvalidationTransport;
+import com.example.BookStore.BookStore.Invalidation.InvalidationBus;
+import com.example.BookStore.BookStore.Invalidation.InvalidationTransport;
+import com.example.BookStore.BookStore.Invalidation.MulticastInvalidationTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "bookstore.invalidation.enabled", havingValue = "true")
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "bookstore.invalidation.transport", havingValue = "multicast", matchIfMissing = true)
+    public InvalidationTransport multicastInvalidationTransport(
+            @Value("${bookstore.invalidation.multicast.group:239.255.42.99}") String group,
+            @Value("${bookstore.invalidation.multicast.port:4446}") int port,
+            @Value("${bookstore.invalidation.multicast.interface:}") String interfaceName) throws IOException {
+        NetworkInterface networkInterface = interfaceName.isBlank()
+                ? NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress())
+                : NetworkInterface.getByName(interfaceName);
+        return new MulticastInvalidationTransport(new InetSocketAddress(InetAddress.getByName(group), port), networkInterface);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "bookstore.invalidation.transport", havingValue = "memory")
+    public InvalidationTransport inMemoryInvalidationTransport(
+            @Value("${bookstore.invalidation.memory.group:default}") String group) {
+        return new InMemoryInvalidationTransport(group);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public InvalidationBus invalidationBus(InvalidationTransport transport,
+                                           ApplicationEventPublisher eventPublisher,
+                                           @Value("${bookstore.invalidation.batch-interval:20ms}") Duration batchInterval,
+                                           @Value("${bookstore.invalidation.heartbeat:1s}") Duration heartbeat,
+                                           MeterRegistry meterRegistry) {
+        return new InvalidationBus(transport, eventPublisher, batchInterval, heartbeat, meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.BookStore.BookStore.Configs;
+
+import com.example.BookStore.BookStore.DataSources.ReplicaRoutingDataSource;
+import com.example.BookStore.BookStore.DataSources.ReplicaRoutingDataSource.Balancing;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Configuration
+@ConditionalOnProperty(name = "bookstore.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceProperties properties,
+                                 @Value("${bookstore.datasource.replicas.urls}") List<String> urls,
+                                 @Value("${bookstore.datasource.replicas.username:}") String username,
+                                 @Value("${bookstore.datasource.replicas.password:}") String password,
+                                 @Value("${bookstore.datasource.replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+                                 @Value("${bookstore.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                 @Value("${bookstore.datasource.replicas.balancing:round-robin}") String balancing,
+                                 @Value("${bookstore.datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+                                 MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username.isBlank() ? properties.determineUsername() : username);
+            replica.setPassword(username.isBlank() ? properties.determinePassword() : password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                Balancing.valueOf(balancing.trim().replace('-', '_').toUpperCase(Locale.ROOT)),
+                healthCheckInterval, connectionTimeout, meterRegistry);
+    }
+}
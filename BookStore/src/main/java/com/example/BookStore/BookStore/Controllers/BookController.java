@@ -1,24 +1,48 @@
 package com.example.BookStore.BookStore.Controllers;
 
+import com.example.BookStore.BookStore.Caches.BookResponseCache;
+import com.example.BookStore.BookStore.Caches.CachedJson;
+import com.example.BookStore.BookStore.DTO.BookCartDTO;
 import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookSearchResultDTO;
+import com.example.BookStore.BookStore.DTO.BulkImportReport;
+import com.example.BookStore.BookStore.DTO.ReservationDTO;
 import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
 import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Services.BookImportService;
+import com.example.BookStore.BookStore.Services.BookSearchService;
 import com.example.BookStore.BookStore.Services.BookService;
+import com.example.BookStore.BookStore.Services.ReservationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/book")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookSearchService bookSearchService;
+    private final ObjectMapper objectMapper;
+    private final BookResponseCache bookResponseCache;
+    private final ReservationService reservationService;
 
     @PostMapping
     public ResponseEntity<Object> addBook(@RequestBody @Valid BookDTO bookDTO, BindingResult bindingResult) {
@@ -32,22 +56,84 @@ public class BookController {
         return new ResponseEntity<>(newBook, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<BulkImportReport> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                        @RequestParam(defaultValue = "true") boolean errorsOnly,
+                                                        InputStream body) throws IOException {
+        BulkImportReport report = bookImportService.importBooks(body, contentType, errorsOnly);
+        return new ResponseEntity<>(report, report.getStatus() == BulkImportReport.Status.ABORTED ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK);
+    }
+
     @GetMapping("/name/{bookName}")
     public ResponseEntity<List<BookDTO>> getBookByName(@PathVariable String bookName) {
         List<BookDTO> bookDTOList = bookService.getBooksByName(bookName);
         return (bookDTOList ==null) ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(bookDTOList, HttpStatus.OK);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResultDTO> searchBooks(@RequestParam("q") String query,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "20") int size) {
+        BookSearchResultDTO result = bookSearchService.search(query, page, size);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @GetMapping("/isbn/{isbn}")
-    public ResponseEntity<BookDTO> getBookByIsbn(@PathVariable String isbn) {
-        BookDTO bookDTO = bookService.getBookByIsbn(isbn);
-        return (bookDTO==null) ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(bookDTO, HttpStatus.OK);
+    public ResponseEntity<byte[]> getBookByIsbn(@PathVariable String isbn,
+                                                @RequestHeader HttpHeaders headers) {
+        CachedJson cached = bookResponseCache.isbn(isbn, () -> bookService.getBookByIsbn(isbn));
+        return (cached==null) ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : cachedJson(cached, headers);
     }
 
     @GetMapping("/getAllBooks")
-    public ResponseEntity<List<BookDTO>> getAllBooks() {
-        List<BookDTO> bookDTOList = bookService.getAllBooks();
-        return (bookDTOList.isEmpty()) ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : new ResponseEntity<>(bookDTOList,HttpStatus.OK);
+    public ResponseEntity<byte[]> getAllBooks(@RequestHeader HttpHeaders headers) {
+        CachedJson cached = bookResponseCache.list("all", () -> {
+            List<BookDTO> bookDTOList = bookService.getAllBooks();
+            return bookDTOList.isEmpty() ? null : bookDTOList;
+        });
+        return (cached==null) ? new ResponseEntity<>(HttpStatus.NOT_FOUND) : cachedJson(cached, headers);
+    }
+
+    @GetMapping("/getAllBooks/page")
+    public ResponseEntity<byte[]> getBooksPage(@RequestParam(required = false) Long after,
+                                               @RequestParam(defaultValue = "100") int size,
+                                               @RequestHeader HttpHeaders headers) {
+        CachedJson cached = bookResponseCache.list("page:" + after + ":" + Math.max(1, Math.min(size, BookService.MAX_PAGE_SIZE)), () -> bookService.getBooksPage(after, size));
+        return cachedJson(cached, headers);
+    }
+
+    static ResponseEntity<byte[]> cachedJson(CachedJson cached, HttpHeaders requestHeaders) {
+        String acceptEncoding = requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzipped = cached.hasGzip() && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String etag = cached.etag(gzipped);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        if (CachedJson.matches(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(gzipped ? cached.gzip() : cached.json(), headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/getAllBooks/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks() {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            bookService.streamAllBooks(bookDTO -> {
+                try {
+                    generator.writeObject(bookDTO);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return new ResponseEntity<>(body, HttpStatus.OK);
     }
 
     @PutMapping("/updateBook")
@@ -68,6 +154,39 @@ public class BookController {
         return new ResponseEntity<>(bookDTO,HttpStatus.OK);
     }
 
+    @PostMapping("/reserveBook/{isbn}")
+    public ResponseEntity<Object> reserveBook(@PathVariable String isbn, @RequestParam(defaultValue = "1") int quantity) {
+        if (quantity < 1) {
+            return new ResponseEntity<>(List.of("quantity: must be greater than 0"), HttpStatus.BAD_REQUEST);
+        }
+        ReservationDTO reservationDTO = reservationService.hold(isbn, quantity);
+        return new ResponseEntity<>(reservationDTO, HttpStatus.CREATED);
+    }
+
+    @PutMapping("/rentReservation/{id}")
+    public ResponseEntity<BookDTO> rentReservation(@PathVariable String id) {
+        BookDTO bookDTO = reservationService.rent(id);
+        return new ResponseEntity<>(bookDTO, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/cancelReservation/{id}")
+    public ResponseEntity<BookDTO> cancelReservation(@PathVariable String id) {
+        BookDTO bookDTO = reservationService.cancel(id);
+        return new ResponseEntity<>(bookDTO, HttpStatus.OK);
+    }
+
+    @PutMapping("/rentBooks")
+    public ResponseEntity<List<BookDTO>> rentBooks(@Valid @RequestBody BookCartDTO cart) {
+        List<BookDTO> bookDTOList = bookService.rentBooks(cart.getIsbns());
+        return new ResponseEntity<>(bookDTOList, HttpStatus.OK);
+    }
+
+    @PutMapping("/returnBooks")
+    public ResponseEntity<List<BookDTO>> returnBooks(@Valid @RequestBody BookCartDTO cart) {
+        List<BookDTO> bookDTOList = bookService.returnBooks(cart.getIsbns());
+        return new ResponseEntity<>(bookDTOList, HttpStatus.OK);
+    }
+
     @DeleteMapping("/delete/{isbn}")
     public ResponseEntity<BookDTO> deleteBookByIsbn(@PathVariable String isbn) {
         BookDTO bookDTO = bookService.deleteBookByIsbn(isbn);
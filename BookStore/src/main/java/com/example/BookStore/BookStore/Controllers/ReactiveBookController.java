@@ -0,0 +1,155 @@
+package com.example.BookStore.BookStore.Controllers;
+
+import com.example.BookStore.BookStore.DTO.BookCartDTO;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookSearchResultDTO;
+import com.example.BookStore.BookStore.DTO.BulkImportReport;
+import com.example.BookStore.BookStore.Services.ReactiveBookService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link BookController} contract on the reactive stack, active when the
+ * application runs with {@code spring.main.web-application-type=reactive}.
+ */
+@RestController
+@RequestMapping("/book")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookController {
+    private final ReactiveBookService reactiveBookService;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addBook(@RequestBody @Valid Mono<BookDTO> bookDTO) {
+        return bookDTO.flatMap(reactiveBookService::addBook)
+                .map(newBook -> new ResponseEntity<Object>(newBook, HttpStatus.CREATED))
+                .onErrorResume(WebExchangeBindException.class, e -> {
+                    List<String> errorMessages = e.getFieldErrors().stream()
+                            .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                            .collect(Collectors.toList());
+                    return Mono.just(new ResponseEntity<>(errorMessages, HttpStatus.BAD_REQUEST));
+                });
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public Mono<ResponseEntity<BulkImportReport>> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                              @RequestParam(defaultValue = "true") boolean errorsOnly,
+                                                              @RequestBody Flux<DataBuffer> body) {
+        return reactiveBookService.importBooks(DataBufferUtils.subscriberInputStream(body, 16), contentType, errorsOnly)
+                .map(report -> new ResponseEntity<>(report, report.getStatus() == BulkImportReport.Status.ABORTED ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.OK));
+    }
+
+    @GetMapping("/name/{bookName}")
+    public Mono<ResponseEntity<List<BookDTO>>> getBookByName(@PathVariable String bookName) {
+        return reactiveBookService.getBooksByName(bookName)
+                .map(bookDTOList -> new ResponseEntity<>(bookDTOList, HttpStatus.OK));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<BookSearchResultDTO>> searchBooks(@RequestParam("q") String query,
+                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "20") int size) {
+        return reactiveBookService.search(query, page, size)
+                .map(result -> new ResponseEntity<>(result, HttpStatus.OK));
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public Mono<ResponseEntity<byte[]>> getBookByIsbn(@PathVariable String isbn,
+                                                      @RequestHeader HttpHeaders headers) {
+        return reactiveBookService.getBookByIsbnJson(isbn)
+                .map(cached -> BookController.cachedJson(cached, headers))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/getAllBooks")
+    public Mono<ResponseEntity<byte[]>> getAllBooks(@RequestHeader HttpHeaders headers) {
+        return reactiveBookService.getAllBooksJson()
+                .map(cached -> BookController.cachedJson(cached, headers))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/getAllBooks/page")
+    public Mono<ResponseEntity<byte[]>> getBooksPage(@RequestParam(required = false) Long after,
+                                                     @RequestParam(defaultValue = "100") int size,
+                                                     @RequestHeader HttpHeaders headers) {
+        return reactiveBookService.getBooksPageJson(after, size)
+                .map(cached -> BookController.cachedJson(cached, headers));
+    }
+
+    @GetMapping(value = "/getAllBooks/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookDTO> streamAllBooks() {
+        return reactiveBookService.streamAllBooks();
+    }
+
+    @PutMapping("/updateBook")
+    public Mono<ResponseEntity<BookDTO>> updateBook(@Valid @RequestBody BookDTO bookDTO) {
+        return reactiveBookService.updateBook(bookDTO)
+                .map(bookDTOUpdated -> new ResponseEntity<>(bookDTOUpdated, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PutMapping("/rentBook/{isbn}")
+    public Mono<ResponseEntity<BookDTO>> rentBook(@PathVariable String isbn) {
+        return reactiveBookService.rentBook(isbn)
+                .map(bookDTO -> new ResponseEntity<>(bookDTO, HttpStatus.OK));
+    }
+
+    @PutMapping("/returnBook/{isbn}")
+    public Mono<ResponseEntity<BookDTO>> returnBook(@PathVariable String isbn) {
+        return reactiveBookService.returnBook(isbn)
+                .map(bookDTO -> new ResponseEntity<>(bookDTO, HttpStatus.OK));
+    }
+
+    @PostMapping("/reserveBook/{isbn}")
+    public Mono<ResponseEntity<Object>> reserveBook(@PathVariable String isbn, @RequestParam(defaultValue = "1") int quantity) {
+        if (quantity < 1) {
+            return Mono.just(new ResponseEntity<>(List.of("quantity: must be greater than 0"), HttpStatus.BAD_REQUEST));
+        }
+        return reactiveBookService.hold(isbn, quantity)
+                .map(reservationDTO -> new ResponseEntity<>(reservationDTO, HttpStatus.CREATED));
+    }
+
+    @PutMapping("/rentReservation/{id}")
+    public Mono<ResponseEntity<BookDTO>> rentReservation(@PathVariable String id) {
+        return reactiveBookService.rentReservation(id)
+                .map(bookDTO -> new ResponseEntity<>(bookDTO, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/cancelReservation/{id}")
+    public Mono<ResponseEntity<BookDTO>> cancelReservation(@PathVariable String id) {
+        return reactiveBookService.cancelReservation(id)
+                .map(bookDTO -> new ResponseEntity<>(bookDTO, HttpStatus.OK));
+    }
+
+    @PutMapping("/rentBooks")
+    public Mono<ResponseEntity<List<BookDTO>>> rentBooks(@Valid @RequestBody BookCartDTO cart) {
+        return reactiveBookService.rentBooks(cart.getIsbns())
+                .map(bookDTOList -> new ResponseEntity<>(bookDTOList, HttpStatus.OK));
+    }
+
+    @PutMapping("/returnBooks")
+    public Mono<ResponseEntity<List<BookDTO>>> returnBooks(@Valid @RequestBody BookCartDTO cart) {
+        return reactiveBookService.returnBooks(cart.getIsbns())
+                .map(bookDTOList -> new ResponseEntity<>(bookDTOList, HttpStatus.OK));
+    }
+
+    @DeleteMapping("/delete/{isbn}")
+    public Mono<ResponseEntity<BookDTO>> deleteBookByIsbn(@PathVariable String isbn) {
+        return reactiveBookService.deleteBookByIsbn(isbn)
+                .map(bookDTO -> new ResponseEntity<>(bookDTO, HttpStatus.OK));
+    }
+}
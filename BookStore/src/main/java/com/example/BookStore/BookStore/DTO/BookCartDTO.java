@@ -0,0 +1,18 @@
+package com.example.BookStore.BookStore.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookCartDTO {
+    @NotEmpty(message = "Cart must contain at least one ISBN")
+    @Size(max = 100, message = "Cart cannot hold more than 100 books")
+    private List<@NotBlank(message = "ISBN is required") String> isbns;
+}
@@ -0,0 +1,14 @@
+package com.example.BookStore.BookStore.DTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookPageDTO {
+    private List<BookDTO> books;
+    private Long nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.example.BookStore.BookStore.DTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookSearchResultDTO {
+    private List<BookDTO> books;
+    private long totalHits;
+    private int page;
+    private int size;
+}
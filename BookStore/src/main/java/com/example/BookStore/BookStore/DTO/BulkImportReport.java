@@ -0,0 +1,28 @@
+package com.example.BookStore.BookStore.DTO;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportReport {
+    private Status status = Status.COMPLETED;
+    private Long abortedAtLine;
+    private long total;
+    private long inserted;
+    private long rejected;
+    private List<BulkImportRowResult> rows = new ArrayList<>();
+
+    /**
+     * ABORTED means the body could not be parsed past abortedAtLine; the
+     * chunks before it are committed.
+     */
+    public enum Status {
+        COMPLETED,
+        ABORTED
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.BookStore.BookStore.DTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportRowResult {
+    private long row;
+    private String isbn;
+    private Status status;
+    private List<String> errors;
+
+    public enum Status {
+        INSERTED,
+        INVALID,
+        DUPLICATE,
+        FAILED
+    }
+}
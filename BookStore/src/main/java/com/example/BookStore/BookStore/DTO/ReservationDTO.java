@@ -0,0 +1,16 @@
+package com.example.BookStore.BookStore.DTO;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationDTO {
+    private String id;
+    private String isbn;
+    private Integer quantity;
+    private Instant expiresAt;
+}
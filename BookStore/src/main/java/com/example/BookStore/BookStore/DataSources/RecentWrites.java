@@ -0,0 +1,59 @@
+package com.example.BookStore.BookStore.DataSources;
+
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ISBNs written within the last read-your-writes window, here or on another
+ * instance. Reads of those go to the primary because a replica may not have
+ * the write yet. A write is recorded when it is published, before its
+ * transaction commits, so no reader can miss it between the commit and the
+ * cache eviction.
+ */
+@Component
+public class RecentWrites {
+    private final Cache<String, Boolean> written;
+    private final long windowNanos;
+    private volatile long everythingUntil;
+
+    public RecentWrites(@Value("${bookstore.datasource.replicas.read-your-writes-window:2s}") Duration window,
+                        @Value("${bookstore.datasource.replicas.read-your-writes-maximum-size:100000}") long maximumSize) {
+        this.windowNanos = window.toNanos();
+        this.written = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .build();
+        this.everythingUntil = System.nanoTime();
+    }
+
+    public boolean contains(String isbn) {
+        return System.nanoTime() - everythingUntil < 0 || written.getIfPresent(isbn) != null;
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        written.put(event.getIsbn(), Boolean.TRUE);
+    }
+
+    @EventListener
+    public void onBooksImported(BooksImportedEvent event) {
+        event.getIsbns().forEach(isbn -> written.put(isbn, Boolean.TRUE));
+    }
+
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (event.isAll()) {
+            everythingUntil = System.nanoTime() + windowNanos;
+        } else {
+            event.getIsbns().forEach(isbn -> written.put(isbn, Boolean.TRUE));
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.BookStore.BookStore.DataSources;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends reads that asked for a replica to one of the healthy replicas and
+ * everything else to the primary. Only code inside {@link #onReplica} is ever
+ * routed away from the primary, and only while no read-write transaction is
+ * running, so writes and the reads that follow them inside a transaction stay
+ * on the primary by default.
+ * <p>
+ * Replicas are checked every health-check interval by opening a connection
+ * and validating it; the round trip feeds a moving average used by the
+ * least-latency balancer. A replica that fails is left out until it passes
+ * again, and with no healthy replica the reads fall back to the primary.
+ * Closing shuts the replica pools; the primary belongs to the caller.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    public enum Balancing {
+        ROUND_ROBIN, LEAST_LATENCY
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double latencyNanos;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Balancing balancing;
+    private final Duration healthCheckInterval;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter toReplica;
+    private final Counter fallback;
+    private volatile List<Replica> healthy = List.of();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    List<DataSource> replicaDataSources,
+                                    Balancing balancing,
+                                    Duration healthCheckInterval,
+                                    Duration validationTimeout,
+                                    MeterRegistry meterRegistry) {
+        this.balancing = balancing;
+        this.healthCheckInterval = healthCheckInterval;
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicaDataSources.get(i));
+            replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+            Gauge.builder("bookstore.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica passed its last health check")
+                    .tag("replica", replica.key)
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.toReplica = Counter.builder("bookstore.datasource.replica.reads")
+                .description("Connections taken for replica reads, by where they were served")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        this.fallback = Counter.builder("bookstore.datasource.replica.reads")
+                .description("Connections taken for replica reads, by where they were served")
+                .tag("target", "primary")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code read} with permission to use a replica. The result may lag
+     * the primary by the replication delay.
+     */
+    public static <T> T onReplica(Supplier<T> read) {
+        if (REPLICA_READ.get() != null) {
+            return read.get();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkHealth();
+        if (!replicas.isEmpty()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = healthCheckInterval.toMillis();
+            scheduler.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close a datasource", e);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (REPLICA_READ.get() == null) {
+            return PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica replica = choose();
+        if (replica == null) {
+            fallback.increment();
+            return PRIMARY;
+        }
+        toReplica.increment();
+        return replica.key;
+    }
+
+    private Replica choose() {
+        List<Replica> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (balancing == Balancing.LEAST_LATENCY) {
+            Replica fastest = candidates.get(0);
+            for (Replica candidate : candidates) {
+                if (candidate.latencyNanos < fastest.latencyNanos) {
+                    fastest = candidate;
+                }
+            }
+            return fastest;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Validates every replica once and updates the set reads are balanced
+     * over. Runs on the health-check thread; public for tests.
+     */
+    public void checkHealth() {
+        List<Replica> passed = new ArrayList<>();
+        for (Replica replica : replicas) {
+            long start = System.nanoTime();
+            boolean valid;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                valid = false;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (valid != replica.healthy) {
+                log.info("Replica {} is now {}", replica.key, valid ? "healthy" : "unhealthy");
+            }
+            replica.healthy = valid;
+            if (valid) {
+                replica.latencyNanos = replica.latencyNanos == 0 ? elapsed
+                        : LATENCY_WEIGHT * elapsed + (1 - LATENCY_WEIGHT) * replica.latencyNanos;
+                passed.add(replica);
+            }
+        }
+        healthy = List.copyOf(passed);
+    }
+
+    public int healthyReplicas() {
+        return healthy.size();
+    }
+}
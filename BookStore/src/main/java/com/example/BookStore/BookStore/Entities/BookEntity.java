@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = @Index(name = "idx_book_entity_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,7 +25,10 @@ public class BookEntity {
     private String publisher;
     private Double securityAmount;
     private Double price;
+    @Column(nullable = false)
     private Integer totalQuantity;
+    @Column(nullable = false)
     private Integer availableQuantity;
+    @Column(nullable = false)
     private Integer rentedQuantity;
 }
@@ -0,0 +1,27 @@
+package com.example.BookStore.BookStore.Entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Copies held off {@link BookEntity#getAvailableQuantity()} until the hold is
+ * rented, cancelled or expires. Kept in the database so a restart can put the
+ * outstanding holds back on the expiry wheel.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_book_reservation_isbn_quantity", columnList = "isbn, quantity"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+    private String isbn;
+    private Integer quantity;
+    private Long expiresAt;
+}
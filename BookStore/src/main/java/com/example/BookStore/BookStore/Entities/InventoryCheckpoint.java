@@ -0,0 +1,23 @@
+package com.example.BookStore.BookStore.Entities;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last inventory journal generation whose deltas reached book_entity, written
+ * in the same transaction as the deltas so replay never applies them twice.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckpoint {
+    @Id
+    private String nodeId;
+    private Long generation;
+}
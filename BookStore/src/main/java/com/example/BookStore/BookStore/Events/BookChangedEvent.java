@@ -0,0 +1,24 @@
+package com.example.BookStore.BookStore.Events;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BookChangedEvent {
+    private final ChangeType type;
+    private final String isbn;
+    private final BookDTO book;
+
+    public enum ChangeType {
+        ADDED,
+        UPDATED,
+        RENTED,
+        RETURNED,
+        DELETED,
+        HELD,
+        RELEASED,
+        HOLD_RENTED
+    }
+}
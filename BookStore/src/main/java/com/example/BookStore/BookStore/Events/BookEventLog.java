@@ -0,0 +1,324 @@
+package com.example.BookStore.BookStore.Events;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of every committed book change, kept in preallocated
+ * memory-mapped segment files. Appending is a copy into the mapping; a
+ * background task forces the dirty pages every force interval, so one msync
+ * covers all appends since the previous one (group commit).
+ *
+ * <p>Records are appended after commit, so two commits on one ISBN can land in
+ * either order. Each change therefore takes a commit order just before its
+ * transaction commits, while it still holds the row lock, and
+ * {@link #rebuild} goes by that order rather than by position in the log.
+ *
+ * <p>Record layout: length, sequence, commit order, timestamp, flags (change type plus an
+ * ISBN-encoding bit), ISBN as a long when it is 13 digits or as UTF-8
+ * otherwise, available and rented quantities, CRC32C. Readers stop at the
+ * first zero length or bad checksum, which is also how a torn tail is found
+ * on reopen.
+ */
+@Slf4j
+public class BookEventLog implements AutoCloseable {
+    private static final String PREFIX = "events-";
+    private static final String SUFFIX = ".log";
+    private static final int TEXT_ISBN = 0x80;
+    private static final ChangeType[] TYPES = ChangeType.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ScheduledExecutorService forcer;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private long nextCommitOrder;
+    private long written;
+    private volatile long forced;
+
+    public BookEventLog(Path directory, int segmentSize, Duration forceInterval) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        recover();
+        this.forcer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-event-log-force");
+            thread.setDaemon(true);
+            return thread;
+        });
+        forcer.scheduleWithFixedDelay(this::forceQuietly, forceInterval.toMillis(), forceInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        BookDTO book = event.getBook();
+        int available = book == null || book.getAvailableQuantity() == null ? 0 : book.getAvailableQuantity();
+        int rented = book == null || book.getRentedQuantity() == null ? 0 : book.getRentedQuantity();
+        long commitOrder = reserveCommitOrder();
+        afterCommit(() -> append(event.getType(), event.getIsbn(), commitOrder, available, rented));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBooksImported(BooksImportedEvent event) {
+        long commitOrder = reserveCommitOrder();
+        afterCommit(() -> {
+            for (BookDTO book : event.getBooks()) {
+                append(ChangeType.ADDED, book.getIsbn(), commitOrder, book.getAvailableQuantity(), book.getRentedQuantity());
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable append) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append.run();
+            }
+        });
+    }
+
+    private synchronized long reserveCommitOrder() {
+        return nextCommitOrder++;
+    }
+
+    public long append(ChangeType type, String isbn, int availableQuantity, int rentedQuantity) {
+        return append(type, isbn, reserveCommitOrder(), availableQuantity, rentedQuantity);
+    }
+
+    public synchronized long append(ChangeType type, String isbn, long commitOrder, int availableQuantity, int rentedQuantity) {
+        boolean numeric = isNumericIsbn(isbn);
+        byte[] text = numeric ? null : isbn.getBytes(StandardCharsets.UTF_8);
+        int length = 3 * Long.BYTES + Byte.BYTES + (numeric ? Long.BYTES : Short.BYTES + text.length) + 2 * Integer.BYTES;
+        if (segment.remaining() < Integer.BYTES + length + Integer.BYTES) {
+            roll();
+        }
+        long sequence = nextSequence++;
+        int start = segment.position();
+        ByteBuffer record = segment.duplicate().position(start + Integer.BYTES);
+        record.putLong(sequence).putLong(commitOrder).putLong(System.currentTimeMillis());
+        record.put((byte) (type.ordinal() | (numeric ? 0 : TEXT_ISBN)));
+        if (numeric) {
+            record.putLong(Long.parseLong(isbn));
+        } else {
+            record.putShort((short) text.length).put(text);
+        }
+        record.putInt(availableQuantity).putInt(rentedQuantity);
+        record.putInt((int) checksum(segment, start + Integer.BYTES, length));
+        segment.putInt(start, length);
+        segment.position(start + Integer.BYTES + length + Integer.BYTES);
+        written = nextSequence;
+        return sequence;
+    }
+
+    /**
+     * Forces everything appended so far to disk.
+     */
+    public void sync() {
+        MappedByteBuffer target;
+        long upTo;
+        synchronized (this) {
+            target = segment;
+            upTo = written;
+        }
+        if (forced < upTo) {
+            target.force();
+            forced = upTo;
+        }
+    }
+
+    /**
+     * Every record with a lower sequence is on disk.
+     */
+    public long durableSequence() {
+        return forced;
+    }
+
+    /**
+     * Streams every record with a sequence at or after {@code fromSequence} and
+     * returns the sequence a consumer should resume from.
+     */
+    public long read(long fromSequence, Consumer<BookEventRecord> consumer) {
+        long next = fromSequence;
+        List<Long> firsts = segments();
+        for (int i = 0; i < firsts.size(); i++) {
+            if (i + 1 < firsts.size() && firsts.get(i + 1) <= fromSequence) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file(firsts.get(i)), StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                BookEventRecord record;
+                while ((record = next(buffer)) != null) {
+                    if (record.sequence() >= fromSequence) {
+                        consumer.accept(record);
+                        next = record.sequence() + 1;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Rebuilds the current quantities of one ISBN from the log alone: the
+     * record committed last wins, and a delete means the book is gone.
+     */
+    public Optional<BookEventRecord> rebuild(String isbn) {
+        BookEventRecord[] latest = new BookEventRecord[1];
+        read(0, record -> {
+            if (record.isbn().equals(isbn) && (latest[0] == null || record.commitOrder() > latest[0].commitOrder())) {
+                latest[0] = record;
+            }
+        });
+        return Optional.ofNullable(latest[0]).filter(record -> record.type() != ChangeType.DELETED);
+    }
+
+    @Override
+    public synchronized void close() {
+        forcer.shutdown();
+        segment.force();
+        forced = written;
+    }
+
+    private void forceQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Could not force the book event log", e);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> firsts = segments();
+        if (firsts.isEmpty()) {
+            open(0);
+            return;
+        }
+        read(0, record -> nextCommitOrder = Math.max(nextCommitOrder, record.commitOrder() + 1));
+        long first = firsts.get(firsts.size() - 1);
+        map(first);
+        nextSequence = first;
+        BookEventRecord record;
+        int end = 0;
+        while ((record = next(segment)) != null) {
+            nextSequence = record.sequence() + 1;
+            end = segment.position();
+        }
+        segment.position(end);
+        written = nextSequence;
+        forced = written;
+    }
+
+    private void roll() {
+        segment.force();
+        forced = written;
+        try {
+            open(nextSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll the book event log", e);
+        }
+    }
+
+    private void open(long firstSequence) throws IOException {
+        map(firstSequence);
+        nextSequence = firstSequence;
+    }
+
+    private void map(long firstSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(file(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private static BookEventRecord next(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int length = buffer.getInt(start);
+        if (length <= 0 || buffer.remaining() < Integer.BYTES + length + Integer.BYTES
+                || buffer.getInt(start + Integer.BYTES + length) != (int) checksum(buffer, start + Integer.BYTES, length)) {
+            return null;
+        }
+        ByteBuffer record = buffer.duplicate().position(start + Integer.BYTES);
+        long sequence = record.getLong();
+        long commitOrder = record.getLong();
+        long timestamp = record.getLong();
+        int flags = record.get() & 0xff;
+        String isbn;
+        if ((flags & TEXT_ISBN) == 0) {
+            isbn = String.format("%013d", record.getLong());
+        } else {
+            byte[] text = new byte[record.getShort()];
+            record.get(text);
+            isbn = new String(text, StandardCharsets.UTF_8);
+        }
+        BookEventRecord result = new BookEventRecord(sequence, commitOrder, timestamp, TYPES[flags & ~TEXT_ISBN], isbn, record.getInt(), record.getInt());
+        buffer.position(start + Integer.BYTES + length + Integer.BYTES);
+        return result;
+    }
+
+    private static long checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(offset).limit(offset + length));
+        return crc.getValue();
+    }
+
+    private static boolean isNumericIsbn(String isbn) {
+        if (isbn.length() != 13) {
+            return false;
+        }
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path file(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    private List<Long> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.BookStore.BookStore.Events;
+
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+
+/**
+ * One entry of the book event log: the change and the quantities it left
+ * behind. The sequence is the position in the log; the commit order is the
+ * order in which the changes committed.
+ */
+public record BookEventRecord(long sequence,
+                              long commitOrder,
+                              long timestamp,
+                              ChangeType type,
+                              String isbn,
+                              int availableQuantity,
+                              int rentedQuantity) {
+}
@@ -0,0 +1,21 @@
+package com.example.BookStore.BookStore.Events;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One committed chunk of a bulk import. Published instead of an ADDED
+ * {@link BookChangedEvent} per row, so caches invalidate once per chunk.
+ */
+@Getter
+@AllArgsConstructor
+public class BooksImportedEvent {
+    private final List<BookDTO> books;
+
+    public List<String> getIsbns() {
+        return books.stream().map(BookDTO::getIsbn).toList();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.BookStore.BookStore.Events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Books changed on another instance. Only the ISBNs travel, so listeners drop
+ * or reload their copies rather than apply a new state. {@code all} is set
+ * when invalidations may have been lost and every cached book is suspect.
+ */
+@Getter
+@AllArgsConstructor
+public class BooksInvalidatedEvent {
+    private final Collection<String> isbns;
+    private final boolean all;
+}
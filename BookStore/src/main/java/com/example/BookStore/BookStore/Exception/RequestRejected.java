@@ -0,0 +1,32 @@
+package com.example.BookStore.BookStore.Exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown by admission control before a request reaches the controller.
+ * Stackless like {@link ResourceNotFound}; rejections are the expected answer
+ * to overload and must stay cheap.
+ */
+@Getter
+public class RequestRejected extends RuntimeException {
+    public enum Reason {
+        ENDPOINT_RATE("Too many requests, try again later"),
+        ISBN_RATE("Too many requests for this book, try again later"),
+        OVERLOADED("Service overloaded, try again later");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+    }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public RequestRejected(Reason reason, long retryAfterSeconds) {
+        super(reason.message, null, false, false);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.BookStore.BookStore.Exception;
 
+/**
+ * Stackless like {@link ResourceNotFound}; {@link #ISBN_PRESENT} is shared.
+ */
 public class ResourceAlreadyExist extends RuntimeException{
+    public static final ResourceAlreadyExist ISBN_PRESENT = new ResourceAlreadyExist("ISBN already present.");
+
     public ResourceAlreadyExist(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,7 +1,14 @@
 package com.example.BookStore.BookStore.Exception;
 
+/**
+ * Stackless like {@link ResourceNotFound}; {@link #ALL_RENTED} and
+ * {@link #HAS_RENTED_OR_HELD_COPIES} are shared.
+ */
 public class ResourceNotAvailable extends RuntimeException {
+    public static final ResourceNotAvailable ALL_RENTED = new ResourceNotAvailable("All the Books are Rented");
+    public static final ResourceNotAvailable HAS_RENTED_OR_HELD_COPIES = new ResourceNotAvailable("Cannot delete the book because it has rented or held copies.");
+
     public ResourceNotAvailable(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,7 +1,19 @@
 package com.example.BookStore.BookStore.Exception;
 
+/**
+ * Thrown without a stack trace: a miss is an expected outcome, not a bug, and
+ * the trace is never logged. The constants are shared instances for the fixed
+ * messages, so the common misses allocate nothing.
+ */
 public class ResourceNotFound extends RuntimeException {
+    public static final ResourceNotFound ISBN_NOT_FOUND = new ResourceNotFound("ISBN not found!!");
+    public static final ResourceNotFound NO_BOOK_OF_ISBN = new ResourceNotFound("No Book of this ISBN found");
+    public static final ResourceNotFound NO_BOOK_OF_NAME = new ResourceNotFound("No book of this name found");
+    public static final ResourceNotFound NO_BOOKS = new ResourceNotFound("No Books found");
+    public static final ResourceNotFound NOTHING_RENTED = new ResourceNotFound("No rented copies for this book there");
+    public static final ResourceNotFound NO_RESERVATION = new ResourceNotFound("Reservation not found or expired");
+
     public ResourceNotFound(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
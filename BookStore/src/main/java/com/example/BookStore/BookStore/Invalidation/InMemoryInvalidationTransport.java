@@ -0,0 +1,46 @@
+package com.example.BookStore.BookStore.Invalidation;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Delivers to every transport of the same group in this JVM, including the
+ * sender. Stands in for the network when several application contexts share
+ * one process, as in tests.
+ */
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+    private static final Map<String, Set<InMemoryInvalidationTransport>> GROUPS = new ConcurrentHashMap<>();
+
+    private final String group;
+    private volatile Consumer<byte[]> receiver;
+
+    public InMemoryInvalidationTransport(String group) {
+        this.group = group;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        GROUPS.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    public void send(byte[] message) {
+        for (InMemoryInvalidationTransport member : GROUPS.getOrDefault(group, Set.of())) {
+            Consumer<byte[]> memberReceiver = member.receiver;
+            if (memberReceiver != null) {
+                memberReceiver.accept(message.clone());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Set<InMemoryInvalidationTransport> members = GROUPS.get(group);
+        if (members != null) {
+            members.remove(this);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.BookStore.BookStore.Invalidation;
+
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the other instances which ISBNs changed here so they drop their
+ * near-cache copies. Committed changes are collected for
+ * bookstore.invalidation.batch-interval and sent as a few datagram-sized
+ * messages. Each message carries the sender id and a sequence number, and an
+ * empty message goes out at least every heartbeat. A receiver that sees a gap
+ * in a sender's sequence has lost a batch and invalidates everything.
+ * Senders number their messages from 1, so a sender seen for the first time
+ * with a later number counts as a gap too: whatever it sent before may have
+ * been lost. A remote change is therefore visible within batch-interval plus delivery,
+ * or within heartbeat when a message is lost.
+ */
+@Slf4j
+public class InvalidationBus {
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 1 + 16 + 8 + 2;
+    private static final long FIRST_SEQUENCE = 1;
+
+    private final InvalidationTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration batchInterval;
+    private final long heartbeatNanos;
+    private final UUID nodeId = UUID.randomUUID();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> lastSequences = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter gaps;
+    private long sequence = FIRST_SEQUENCE - 1;
+    private long lastSentNanos = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+
+    public InvalidationBus(InvalidationTransport transport,
+                           ApplicationEventPublisher eventPublisher,
+                           Duration batchInterval,
+                           Duration heartbeat,
+                           MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.batchInterval = batchInterval;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.sent = Counter.builder("bookstore.invalidation.sent")
+                .description("ISBN invalidations sent to other instances")
+                .register(meterRegistry);
+        this.received = Counter.builder("bookstore.invalidation.received")
+                .description("ISBN invalidations received from other instances")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("bookstore.invalidation.gaps")
+                .description("Lost invalidation messages, each answered by invalidating every cached book")
+                .register(meterRegistry);
+    }
+
+    public synchronized void start() throws IOException {
+        transport.start(this::receive);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, batchInterval.toMillis(), batchInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flushQuietly();
+            scheduler = null;
+        }
+        transport.close();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        pending.add(event.getIsbn());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksImported(BooksImportedEvent event) {
+        pending.addAll(event.getIsbns());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Could not send invalidations", e);
+        }
+    }
+
+    /**
+     * Sends everything collected since the last flush, or a heartbeat when
+     * there is nothing and the heartbeat is due.
+     */
+    public synchronized void flush() {
+        List<String> batch = new ArrayList<>();
+        int size = HEADER_SIZE;
+        for (Iterator<String> iterator = pending.iterator(); iterator.hasNext(); ) {
+            String isbn = iterator.next();
+            iterator.remove();
+            int isbnSize = 2 + isbn.getBytes(StandardCharsets.UTF_8).length;
+            if (size + isbnSize > InvalidationTransport.MAX_MESSAGE_SIZE) {
+                send(batch);
+                batch = new ArrayList<>();
+                size = HEADER_SIZE;
+            }
+            batch.add(isbn);
+            size += isbnSize;
+        }
+        if (!batch.isEmpty() || System.nanoTime() - lastSentNanos >= heartbeatNanos) {
+            send(batch);
+        }
+    }
+
+    private void send(List<String> isbns) {
+        try {
+            transport.send(encode(nodeId, ++sequence, isbns));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        lastSentNanos = System.nanoTime();
+        sent.increment(isbns.size());
+    }
+
+    void receive(byte[] message) {
+        Message decoded = decode(message);
+        if (decoded == null || decoded.nodeId().equals(nodeId)) {
+            return;
+        }
+        Long previous = lastSequences.put(decoded.nodeId(), decoded.sequence());
+        boolean lost = decoded.sequence() != (previous == null ? FIRST_SEQUENCE : previous + 1);
+        if (lost) {
+            gaps.increment();
+        }
+        if (lost || !decoded.isbns().isEmpty()) {
+            received.increment(decoded.isbns().size());
+            eventPublisher.publishEvent(new BooksInvalidatedEvent(decoded.isbns(), lost));
+        }
+    }
+
+    record Message(UUID nodeId, long sequence, List<String> isbns) {
+    }
+
+    static byte[] encode(UUID nodeId, long sequence, List<String> isbns) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(InvalidationTransport.MAX_MESSAGE_SIZE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(nodeId.getMostSignificantBits());
+            out.writeLong(nodeId.getLeastSignificantBits());
+            out.writeLong(sequence);
+            out.writeShort(isbns.size());
+            for (String isbn : isbns) {
+                out.writeUTF(isbn);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Message decode(byte[] message) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            UUID nodeId = new UUID(in.readLong(), in.readLong());
+            long sequence = in.readLong();
+            int count = in.readUnsignedShort();
+            List<String> isbns = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                isbns.add(in.readUTF());
+            }
+            return new Message(nodeId, sequence, isbns);
+        } catch (IOException e) {
+            log.warn("Dropping a malformed invalidation message of {} bytes", message.length);
+            return null;
+        }
+    }
+}
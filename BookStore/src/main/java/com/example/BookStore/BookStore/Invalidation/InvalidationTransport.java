@@ -0,0 +1,18 @@
+package com.example.BookStore.BookStore.Invalidation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation messages between instances. Delivery is best effort:
+ * {@link InvalidationBus} numbers its messages and treats a gap as a lost
+ * batch.
+ */
+public interface InvalidationTransport extends Closeable {
+    int MAX_MESSAGE_SIZE = 1400;
+
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    void send(byte[] message) throws IOException;
+}
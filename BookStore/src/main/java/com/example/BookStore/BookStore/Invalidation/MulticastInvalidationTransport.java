@@ -0,0 +1,72 @@
+package com.example.BookStore.BookStore.Invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.function.Consumer;
+
+/**
+ * UDP multicast, one datagram per message. Every instance on the interface
+ * that joined the group receives it, the sender included.
+ */
+@Slf4j
+public class MulticastInvalidationTransport implements InvalidationTransport {
+    private final InetSocketAddress group;
+    private final NetworkInterface networkInterface;
+    private DatagramChannel channel;
+
+    public MulticastInvalidationTransport(InetSocketAddress group, NetworkInterface networkInterface) {
+        this.group = group;
+        this.networkInterface = networkInterface;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) throws IOException {
+        channel = DatagramChannel.open(StandardProtocolFamily.INET)
+                .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                .bind(new InetSocketAddress(group.getPort()))
+                .setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface)
+                .setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        channel.join(group.getAddress(), networkInterface);
+        Thread thread = new Thread(() -> receive(receiver), "invalidation-receiver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void receive(Consumer<byte[]> receiver) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_MESSAGE_SIZE);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                byte[] message = new byte[buffer.remaining()];
+                buffer.get(message);
+                receiver.accept(message);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not handle an invalidation datagram", e);
+            }
+        }
+    }
+
+    @Override
+    public void send(byte[] message) throws IOException {
+        channel.send(ByteBuffer.wrap(message), group);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, where each entry sits
+ * in the bucket of its deadline tick with the number of full turns still to
+ * go. Scheduling is a queue append from any thread; {@link #advance(long)}
+ * sweeps every bucket that came due since the last call and hands everything
+ * that expired to the callback as one list, so thousands of deadlines falling
+ * together cost one call instead of one timer each.
+ * <p>
+ * Deadlines never fire early and at most one tick late. Entries cannot be
+ * cancelled; the callback is expected to ignore items that are already gone.
+ */
+public class HashedTimingWheel<T> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> onExpired;
+    private long tick;
+
+    private static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private long rounds;
+
+        private Timeout(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * @param wheelSize rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis, Consumer<List<T>> onExpired) {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("tick and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << (wheelSize > 1 ? 1 : 0);
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.onExpired = onExpired;
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        pending.add(new Timeout<>(item, deadlineMillis));
+    }
+
+    /**
+     * Sweeps every tick up to {@code nowMillis} and returns how many entries
+     * expired. Must only be called from one thread at a time.
+     */
+    public int advance(long nowMillis) {
+        long due = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        while (tick <= due) {
+            transferPending();
+            List<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+            int kept = 0;
+            for (int i = 0; i < bucket.size(); i++) {
+                Timeout<T> timeout = bucket.get(i);
+                if (timeout.rounds == 0) {
+                    expired.add(timeout.item);
+                } else {
+                    timeout.rounds--;
+                    bucket.set(kept++, timeout);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+            tick++;
+        }
+        if (!expired.isEmpty()) {
+            onExpired.accept(expired);
+        }
+        return expired.size();
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            long deadlineTick = Math.max(tick, -Math.floorDiv(startMillis - timeout.deadline, tickMillis));
+            timeout.rounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Optional in-memory admission layer for rent/return. It only ever rejects
+ * rentals early; the conditional UPDATE in the repository stays the source of
+ * truth. A counter that allows a rental the database refuses is dropped by the
+ * caller, and one that refuses a rental is reseeded from the database once
+ * before the refusal stands, so a counter left low (a rental rolled back, or
+ * a return made on another instance) corrects itself on the next refusal.
+ * Inside a transaction, a permit is handed back if the transaction rolls back
+ * and a return is only counted once it commits.
+ */
+@Component
+public class InventoryCounters {
+    private final boolean enabled;
+    private final int stripes;
+    private final ConcurrentMap<String, StripedCounter> counters = new ConcurrentHashMap<>();
+
+    public InventoryCounters(@Value("${bookstore.inventory.counters.enabled:false}") boolean enabled,
+                             @Value("${bookstore.inventory.counters.stripes:0}") int stripes) {
+        this.enabled = enabled;
+        this.stripes = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean tryAcquire(String isbn, ToIntFunction<String> availableLoader) {
+        if (!enabled) {
+            return true;
+        }
+        StripedCounter counter = counter(isbn, availableLoader);
+        if (!counter.tryDecrement()) {
+            counters.remove(isbn, counter);
+            counter = counter(isbn, availableLoader);
+            if (!counter.tryDecrement()) {
+                return false;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            StripedCounter acquired = counter;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        acquired.increment();
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private StripedCounter counter(String isbn, ToIntFunction<String> availableLoader) {
+        StripedCounter counter = counters.get(isbn);
+        if (counter == null) {
+            StripedCounter seeded = new StripedCounter(stripes, availableLoader.applyAsInt(isbn));
+            counter = counters.putIfAbsent(isbn, seeded);
+            if (counter == null) {
+                counter = seeded;
+            }
+        }
+        return counter;
+    }
+
+    public void release(String isbn) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(isbn);
+                }
+            });
+        } else {
+            increment(isbn);
+        }
+    }
+
+    private void increment(String isbn) {
+        StripedCounter counter = counters.get(isbn);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void invalidate(String isbn) {
+        if (enabled) {
+            counters.remove(isbn);
+        }
+    }
+
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (event.isAll()) {
+            counters.clear();
+        } else {
+            event.getIsbns().forEach(counters::remove);
+        }
+    }
+
+    public Integer available(String isbn) {
+        StripedCounter counter = counters.get(isbn);
+        return counter == null ? null : counter.sum();
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of inventory deltas, one file per flush generation.
+ * Appends are acknowledged only after an fsync; concurrent appenders share a
+ * single force (group commit). Each append is one length-prefixed,
+ * CRC-checked record holding every delta of the operation, so a torn tail
+ * left by a crash drops whole carts on replay, never part of one.
+ * <p>
+ * A failed append never leaves its bytes behind for replay: a failed write
+ * is truncated away, and a failed fsync fails every append not yet known to
+ * be on disk, truncates the file back to what was, and moves on to a new
+ * generation, since after a failed fsync the file's state cannot be trusted.
+ */
+class InventoryJournal implements AutoCloseable {
+    private static final String PREFIX = "inventory-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final Opener opener;
+    private final Object forceLock = new Object();
+    private FileChannel channel;
+    private long generation;
+    private List<Ticket> unforced = new ArrayList<>();
+    private long durableSize;
+
+    private static final class Ticket {
+        private volatile Boolean durable;
+    }
+
+    interface Opener {
+        FileChannel open(Path file) throws IOException;
+    }
+
+    InventoryJournal(Path directory) throws IOException {
+        this(directory, file -> FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    InventoryJournal(Path directory, Opener opener) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.opener = opener;
+    }
+
+    record Delta(String isbn, int available, int rented) {
+    }
+
+    /**
+     * Sums the deltas of every generation newer than the checkpoint. The
+     * journal continues after the newest generation found on disk.
+     */
+    Map<String, Delta> replay(long checkpoint) throws IOException {
+        Map<String, Delta> totals = new LinkedHashMap<>();
+        for (long existing : generations()) {
+            generation = Math.max(generation, existing);
+            if (existing <= checkpoint) {
+                continue;
+            }
+            for (Delta delta : read(file(existing))) {
+                totals.merge(delta.isbn(), delta, (a, b) -> new Delta(a.isbn(), a.available() + b.available(), a.rented() + b.rented()));
+            }
+        }
+        generation = Math.max(generation, checkpoint);
+        return totals;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    synchronized void start() throws IOException {
+        generation++;
+        channel = opener.open(file(generation));
+        durableSize = 0;
+    }
+
+    /**
+     * Writes the deltas as one contiguous block and returns once they are on
+     * disk. Throws if they are not, in which case they will not be replayed.
+     */
+    void append(List<Delta> deltas) throws IOException {
+        ByteBuffer buffer = encode(deltas);
+        Ticket ticket = new Ticket();
+        synchronized (this) {
+            if (channel == null) {
+                start();
+            }
+            long start = channel.size();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                try {
+                    channel.truncate(start);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                    abandon();
+                }
+                throw e;
+            }
+            unforced.add(ticket);
+        }
+        synchronized (forceLock) {
+            List<Ticket> batch;
+            FileChannel forcing;
+            long size;
+            synchronized (this) {
+                if (ticket.durable != null) {
+                    check(ticket);
+                    return;
+                }
+                batch = unforced;
+                unforced = new ArrayList<>();
+                forcing = channel;
+                size = forcing.size();
+            }
+            IOException failure = null;
+            try {
+                forcing.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+            synchronized (this) {
+                boolean durable = failure == null && forcing == channel;
+                if (durable) {
+                    durableSize = size;
+                } else if (forcing == channel) {
+                    abandon();
+                }
+                batch.forEach(forced -> forced.durable = durable);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            check(ticket);
+        }
+    }
+
+    private static void check(Ticket ticket) throws IOException {
+        if (!ticket.durable) {
+            throw new IOException("The inventory journal could not be forced to disk");
+        }
+    }
+
+    /**
+     * Fails every append not yet forced, cuts the file back to its forced
+     * length and continues in a new generation. Called holding this monitor.
+     */
+    private void abandon() {
+        unforced.forEach(lost -> lost.durable = false);
+        unforced = new ArrayList<>();
+        try (FileChannel abandoned = channel) {
+            channel = null;
+            abandoned.truncate(durableSize);
+            abandoned.force(true);
+        } catch (IOException e) {
+            // Keep going: the next generation is a fresh file either way.
+        }
+        try {
+            start();
+        } catch (IOException e) {
+            // The next append retries opening a generation.
+        }
+    }
+
+    /**
+     * Seals the current generation and opens the next one. Callers must make
+     * sure no append is in progress.
+     */
+    synchronized long rotate() throws IOException {
+        long sealed = generation;
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+        start();
+        return sealed;
+    }
+
+    void deleteUpTo(long sealed) throws IOException {
+        for (long existing : generations()) {
+            if (existing <= sealed) {
+                Files.deleteIfExists(file(existing));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private Path file(long generation) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, generation, SUFFIX));
+    }
+
+    private List<Long> generations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static ByteBuffer encode(List<Delta> deltas) {
+        List<byte[]> isbns = new ArrayList<>(deltas.size());
+        int length = Short.BYTES;
+        for (Delta delta : deltas) {
+            byte[] isbn = delta.isbn().getBytes(StandardCharsets.UTF_8);
+            isbns.add(isbn);
+            length += Short.BYTES + isbn.length + 2 * Integer.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + length + Integer.BYTES);
+        buffer.putInt(length).putShort((short) deltas.size());
+        for (int i = 0; i < deltas.size(); i++) {
+            byte[] isbn = isbns.get(i);
+            buffer.putShort((short) isbn.length).put(isbn).putInt(deltas.get(i).available()).putInt(deltas.get(i).rented());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), Integer.BYTES, length);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    static List<Delta> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        List<Delta> deltas = new ArrayList<>();
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt();
+            if (length < Short.BYTES || buffer.remaining() < length + Integer.BYTES) {
+                break;
+            }
+            int start = buffer.position();
+            crc.reset();
+            crc.update(buffer.array(), start, length);
+            if (buffer.getInt(start + length) != (int) crc.getValue()) {
+                break;
+            }
+            int count = buffer.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                byte[] isbn = new byte[buffer.getShort()];
+                buffer.get(isbn);
+                deltas.add(new Delta(new String(isbn, StandardCharsets.UTF_8), buffer.getInt(), buffer.getInt()));
+            }
+            buffer.position(start + length + Integer.BYTES);
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background check of the inventory invariant totalQuantity =
+ * availableQuantity + rentedQuantity + held copies. Walks book_entity in id
+ * order one chunk at a time with a pause between chunks, so a pass holds one
+ * chunk in memory and never scans the table in one statement. Drifted rows
+ * are counted and logged. With {@code repair} on, a row whose available or
+ * rented count is missing or negative gets that count raised to zero and its
+ * total recomputed; a row whose only fault is a total that disagrees with the
+ * sum is left alone, since the sum may be the corrupt side. A repair only
+ * applies if the row and its holds still match what was read, so it never
+ * overwrites a concurrent rent, return or hold.
+ */
+@Slf4j
+@Component
+public class InventoryVerifier {
+    private static final String HELD = "(select coalesce(sum(r.quantity), 0) from book_reservation r where r.isbn = b.isbn)";
+    private static final String CHUNK_SQL = "select b.id, b.total_quantity, b.available_quantity, b.rented_quantity, " + HELD +
+            " from book_entity b where b.id > ? order by b.id limit ?";
+    private static final int NULL = Integer.MIN_VALUE;
+    private static final String REPAIR_SQL = "update book_entity b set total_quantity = ?, available_quantity = ?, rented_quantity = ? " +
+            "where b.id = ? and coalesce(total_quantity, " + NULL + ") = ? and coalesce(available_quantity, " + NULL + ") = ? " +
+            "and coalesce(rented_quantity, " + NULL + ") = ? and " + HELD + " = ?";
+
+    private final boolean enabled;
+    private final boolean repair;
+    private final int chunkSize;
+    private final Duration chunkDelay;
+    private final Duration passInterval;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter checked;
+    private final Counter drifted;
+    private final Counter repaired;
+    private ScheduledExecutorService scheduler;
+    private long after;
+
+    record Row(long id, Integer total, Integer available, Integer rented, int held) {
+        boolean consistent() {
+            return countsValid() && total != null && total == available + rented + held;
+        }
+
+        boolean countsValid() {
+            return available != null && available >= 0 && rented != null && rented >= 0;
+        }
+
+        Object[] repair() {
+            int fixedAvailable = available == null ? 0 : Math.max(0, available);
+            int fixedRented = rented == null ? 0 : Math.max(0, rented);
+            return new Object[]{fixedAvailable + fixedRented + held, fixedAvailable, fixedRented,
+                    id, orNull(total), orNull(available), orNull(rented), held};
+        }
+
+        private static int orNull(Integer quantity) {
+            return quantity == null ? NULL : quantity;
+        }
+    }
+
+    public InventoryVerifier(@Value("${bookstore.inventory.verifier.enabled:false}") boolean enabled,
+                             @Value("${bookstore.inventory.verifier.repair:false}") boolean repair,
+                             @Value("${bookstore.inventory.verifier.chunk-size:500}") int chunkSize,
+                             @Value("${bookstore.inventory.verifier.chunk-delay:200ms}") Duration chunkDelay,
+                             @Value("${bookstore.inventory.verifier.pass-interval:1h}") Duration passInterval,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             BookRepository bookRepository,
+                             BookMapper bookMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.repair = repair;
+        this.chunkSize = chunkSize;
+        this.chunkDelay = chunkDelay;
+        this.passInterval = passInterval;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.eventPublisher = eventPublisher;
+        this.checked = Counter.builder("bookstore.inventory.verifier.rows")
+                .description("Book rows checked against the inventory invariant")
+                .register(meterRegistry);
+        this.drifted = Counter.builder("bookstore.inventory.verifier.drifted")
+                .description("Book rows found breaking the inventory invariant")
+                .register(meterRegistry);
+        this.repaired = Counter.builder("bookstore.inventory.verifier.repaired")
+                .description("Book rows whose missing or negative counts were repaired")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.schedule(this::runChunk, chunkDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runChunk() {
+        Duration delay = chunkDelay;
+        try {
+            Long next = verifyChunk(after);
+            if (next == null) {
+                after = 0L;
+                delay = passInterval;
+            } else {
+                after = next;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Inventory verification of the chunk after id {} failed", after, e);
+        }
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.schedule(this::runChunk, delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Checks (and, if enabled, repairs) the chunk of rows after {@code after} and returns the
+     * id to continue from, or null once the pass reached the end of the table.
+     */
+    public Long verifyChunk(long after) {
+        List<Row> rows = jdbcTemplate.query(CHUNK_SQL, (rs, rowNum) -> new Row(rs.getLong(1),
+                rs.getObject(2, Integer.class), rs.getObject(3, Integer.class), rs.getObject(4, Integer.class), rs.getInt(5)),
+                after, chunkSize);
+        checked.increment(rows.size());
+        List<Row> inconsistent = rows.stream().filter(row -> !row.consistent()).toList();
+        if (!inconsistent.isEmpty()) {
+            log.warn("Inventory drift on book ids {}", inconsistent.stream().map(Row::id).toList());
+            drifted.increment(inconsistent.size());
+            List<Row> repairable = inconsistent.stream().filter(row -> !row.countsValid()).toList();
+            if (repair && !repairable.isEmpty()) {
+                repair(repairable);
+            }
+        }
+        return rows.size() < chunkSize ? null : rows.get(rows.size() - 1).id();
+    }
+
+    /**
+     * One full pass from the start of the table, for tests and manual runs.
+     */
+    public void verifyAll() {
+        Long next = 0L;
+        while (next != null) {
+            next = verifyChunk(next);
+        }
+    }
+
+    private void repair(List<Row> drifted) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(REPAIR_SQL, drifted.stream().map(Row::repair).toList());
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    ids.add(drifted.get(i).id());
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            log.warn("Repaired inventory drift on {} books", ids.size());
+            repaired.increment(ids.size());
+            bookRepository.findAllById(ids).forEach(bookEntity -> eventPublisher.publishEvent(
+                    new BookChangedEvent(ChangeType.UPDATED, bookEntity.getIsbn(), bookMapper.toDTO(bookEntity))));
+        });
+    }
+}
@@ -0,0 +1,496 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.example.BookStore.BookStore.Inventory.InventoryJournal.Delta;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Optional write-behind mode for rent/return. While enabled, this buffer owns
+ * availableQuantity and rentedQuantity: each change is checked against the
+ * buffered stock, made durable in the local journal and acknowledged, and the
+ * net per-ISBN deltas reach book_entity later in one batched UPDATE. Paths
+ * that write quantities directly {@link #drain} their ISBNs first, which
+ * flushes and holds rent/return on those ISBNs until the write commits.
+ * <p>
+ * The buffered stock lives in this JVM only, so a second instance would
+ * decide rentals against its own copy and oversell. The buffer therefore
+ * refuses to start next to replica routing or the invalidation bus, the two
+ * multi-instance setups.
+ */
+@Slf4j
+@Component
+public class InventoryWriteBehindBuffer implements SmartLifecycle {
+    private static final String APPLY_SQL = "update book_entity set available_quantity = available_quantity + ?, " +
+            "rented_quantity = rented_quantity + ? where isbn = ?";
+
+    private final boolean enabled;
+    private final Path journalDirectory;
+    private final Duration flushInterval;
+    private final int flushThreshold;
+    private final String nodeId;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer flushTimer;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final AtomicInteger pendingOperations = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private InventoryJournal journal;
+    private ScheduledExecutorService scheduler;
+
+    public InventoryWriteBehindBuffer(@Value("${bookstore.inventory.write-behind.enabled:false}") boolean enabled,
+                                      @Value("${bookstore.inventory.write-behind.journal-dir:data/inventory-journal}") Path journalDirectory,
+                                      @Value("${bookstore.inventory.write-behind.flush-interval:1s}") Duration flushInterval,
+                                      @Value("${bookstore.inventory.write-behind.flush-threshold:500}") int flushThreshold,
+                                      @Value("${bookstore.inventory.write-behind.node-id:${spring.application.name}}") String nodeId,
+                                      @Value("${bookstore.datasource.replicas.enabled:false}") boolean replicasEnabled,
+                                      @Value("${bookstore.invalidation.enabled:false}") boolean invalidationEnabled,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        if (enabled && (replicasEnabled || invalidationEnabled)) {
+            throw new IllegalStateException("bookstore.inventory.write-behind.enabled is single-instance only and cannot be " +
+                    "combined with bookstore.datasource.replicas.enabled or bookstore.invalidation.enabled");
+        }
+        this.enabled = enabled;
+        this.journalDirectory = journalDirectory;
+        this.flushInterval = flushInterval;
+        this.flushThreshold = flushThreshold;
+        this.nodeId = nodeId;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushTimer = Timer.builder("bookstore.inventory.write-behind.flush")
+                .description("Time to apply buffered inventory deltas to the database")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.inventory.write-behind.pending", pendingOperations, AtomicInteger::get)
+                .description("Acknowledged rent/return operations not yet flushed to the database")
+                .register(meterRegistry);
+    }
+
+    public record Stock(int available, int rented) {
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition drained = lock.newCondition();
+        private int draining;
+        private boolean loaded;
+        private int available;
+        private int rented;
+        private int pendingAvailable;
+        private int pendingRented;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rents the given number of copies per ISBN, all or nothing. Returns the
+     * first ISBN without enough available copies, or empty once the rental is
+     * durable.
+     */
+    public Optional<String> tryRent(SortedMap<String, Integer> copies, Function<String, Stock> loader) {
+        return apply(copies, loader, -1);
+    }
+
+    /**
+     * Returns the given number of copies per ISBN, all or nothing. Returns the
+     * first ISBN without enough rented copies, or empty once the return is
+     * durable.
+     */
+    public Optional<String> tryReturn(SortedMap<String, Integer> copies, Function<String, Stock> loader) {
+        return apply(copies, loader, 1);
+    }
+
+    private record Attempt(Optional<String> shortOf, Entry draining) {
+    }
+
+    private Optional<String> apply(SortedMap<String, Integer> copies, Function<String, Stock> loader, int direction) {
+        Attempt attempt;
+        while ((attempt = tryApply(copies, loader, direction)).draining() != null) {
+            awaitDrained(attempt.draining());
+        }
+        return attempt.shortOf();
+    }
+
+    /**
+     * One pass over the cart. Gives up on the first ISBN being drained, with
+     * every lock released, so the caller can wait for it and start over.
+     */
+    private Attempt tryApply(SortedMap<String, Integer> copies, Function<String, Stock> loader, int direction) {
+        List<Entry> locked = new ArrayList<>(copies.size());
+        List<Delta> deltas = new ArrayList<>(copies.size());
+        flushLock.readLock().lock();
+        try {
+            try {
+                for (Map.Entry<String, Integer> line : copies.entrySet()) {
+                    Entry entry = entries.get(line.getKey());
+                    Stock seed = null;
+                    if (entry == null) {
+                        seed = loader.apply(line.getKey());
+                        entry = entries.computeIfAbsent(line.getKey(), isbn -> new Entry());
+                    }
+                    entry.lock.lock();
+                    locked.add(entry);
+                    if (entry.draining > 0) {
+                        return new Attempt(null, entry);
+                    }
+                    if (!entry.loaded) {
+                        Stock stock = seed != null ? seed : loader.apply(line.getKey());
+                        entry.available = stock.available() + entry.pendingAvailable;
+                        entry.rented = stock.rented() + entry.pendingRented;
+                        entry.loaded = true;
+                    }
+                    int count = line.getValue();
+                    if ((direction < 0 ? entry.available : entry.rented) < count) {
+                        return new Attempt(Optional.of(line.getKey()), null);
+                    }
+                    deltas.add(new Delta(line.getKey(), direction * count, -direction * count));
+                }
+                for (int i = 0; i < deltas.size(); i++) {
+                    locked.get(i).available += deltas.get(i).available();
+                    locked.get(i).rented += deltas.get(i).rented();
+                }
+            } finally {
+                locked.forEach(entry -> entry.lock.unlock());
+            }
+
+            try {
+                journal.append(deltas);
+            } catch (IOException e) {
+                adjust(locked, deltas, -1, false);
+                throw new UncheckedIOException("Could not journal inventory change", e);
+            }
+            adjust(locked, deltas, 1, true);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        if (pendingOperations.incrementAndGet() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushQuietly);
+        }
+        return new Attempt(Optional.empty(), null);
+    }
+
+    private static void awaitDrained(Entry entry) {
+        entry.lock.lock();
+        try {
+            while (entry.draining > 0) {
+                entry.drained.awaitUninterruptibly();
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * For paths that write quantities straight to book_entity. Flushes, then
+     * holds rent and return on these ISBNs until the surrounding transaction
+     * completes and drops their buffered stock so it is reseeded from the row
+     * that transaction wrote. Without the hold, a rental landing between the
+     * flush and the commit would be decided against stale stock and then
+     * overwritten.
+     */
+    public void drain(Collection<String> isbns) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("drain() must run inside the transaction that writes the quantities");
+        }
+        List<Entry> draining = new ArrayList<>(isbns.size());
+        for (String isbn : new TreeSet<>(isbns)) {
+            draining.add(startDrain(isbn));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                draining.forEach(InventoryWriteBehindBuffer::endDrain);
+            }
+        });
+        flush();
+    }
+
+    /**
+     * Marks the ISBN's entry as draining, retrying if a flush evicted the
+     * entry in between, since a new entry would not carry the mark.
+     */
+    private Entry startDrain(String isbn) {
+        while (true) {
+            Entry entry = entries.computeIfAbsent(isbn, key -> new Entry());
+            entry.lock.lock();
+            try {
+                if (entries.get(isbn) == entry) {
+                    entry.draining++;
+                    return entry;
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private static void endDrain(Entry entry) {
+        entry.lock.lock();
+        try {
+            entry.draining--;
+            entry.loaded = false;
+            entry.drained.signalAll();
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private static void adjust(List<Entry> entries, List<Delta> deltas, int sign, boolean pending) {
+        for (int i = 0; i < deltas.size(); i++) {
+            Entry entry = entries.get(i);
+            entry.lock.lock();
+            try {
+                if (pending) {
+                    entry.pendingAvailable += deltas.get(i).available();
+                    entry.pendingRented += deltas.get(i).rented();
+                } else {
+                    entry.available += sign * deltas.get(i).available();
+                    entry.rented += sign * deltas.get(i).rented();
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the quantities with the buffered ones when this node holds
+     * fresher values than the row.
+     */
+    public BookDTO overlay(BookDTO bookDTO) {
+        Entry entry = enabled ? entries.get(bookDTO.getIsbn()) : null;
+        if (entry == null) {
+            return bookDTO;
+        }
+        entry.lock.lock();
+        try {
+            if (entry.loaded) {
+                bookDTO.setAvailableQuantity(entry.available);
+                bookDTO.setRentedQuantity(entry.rented);
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+        return bookDTO;
+    }
+
+    /**
+     * Applies every acknowledged delta to book_entity in one batch, records the
+     * sealed journal generation in the same transaction, then drops the sealed
+     * journal files and the entries left with nothing pending; those reseed
+     * from the row on their next rent or return. Rent and return wait while a
+     * flush runs.
+     */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.writeLock().lock();
+        try {
+            if (pendingOperations.get() == 0) {
+                evictSettled();
+                return;
+            }
+            List<Entry> flushed = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            entries.forEach((isbn, entry) -> {
+                if (entry.pendingAvailable != 0 || entry.pendingRented != 0) {
+                    flushed.add(entry);
+                    updates.add(new Object[]{entry.pendingAvailable, entry.pendingRented, isbn});
+                }
+            });
+            long sealed = journal.rotate();
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(APPLY_SQL, updates);
+                checkpoint(sealed);
+            }));
+            for (Entry entry : flushed) {
+                entry.pendingAvailable = 0;
+                entry.pendingRented = 0;
+            }
+            pendingOperations.set(0);
+            evictSettled();
+            journal.deleteUpTo(sealed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate the inventory journal", e);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private void evictSettled() {
+        entries.forEach((isbn, entry) -> {
+            entry.lock.lock();
+            try {
+                if (entry.pendingAvailable == 0 && entry.pendingRented == 0 && entry.draining == 0) {
+                    entries.remove(isbn, entry);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        });
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Inventory flush failed; deltas stay buffered and journaled", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled || event.getType() == BookChangedEvent.ChangeType.RENTED || event.getType() == BookChangedEvent.ChangeType.RETURNED) {
+            return;
+        }
+        unload(entries.get(event.getIsbn()));
+    }
+
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isAll()) {
+            entries.values().forEach(InventoryWriteBehindBuffer::unload);
+        } else {
+            event.getIsbns().forEach(isbn -> unload(entries.get(isbn)));
+        }
+    }
+
+    private static void unload(Entry entry) {
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                entry.loaded = false;
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private void checkpoint(long generation) {
+        if (jdbcTemplate.update("update inventory_checkpoint set generation = ? where node_id = ?", generation, nodeId) == 0) {
+            jdbcTemplate.update("insert into inventory_checkpoint (node_id, generation) values (?, ?)", nodeId, generation);
+        }
+    }
+
+    private long lastCheckpoint() {
+        List<Long> generations = jdbcTemplate.queryForList("select generation from inventory_checkpoint where node_id = ?", Long.class, nodeId);
+        return generations.isEmpty() ? 0 : generations.get(0);
+    }
+
+    /**
+     * Replays journal generations newer than the checkpoint before any request
+     * is served, then starts a fresh generation and the flush schedule.
+     */
+    @Override
+    public synchronized void start() {
+        if (!enabled || journal != null) {
+            return;
+        }
+        try {
+            journal = new InventoryJournal(journalDirectory);
+            Map<String, Delta> replayed = journal.replay(lastCheckpoint());
+            long last = journal.generation();
+            if (!replayed.isEmpty()) {
+                List<Object[]> updates = replayed.values().stream()
+                        .map(delta -> new Object[]{delta.available(), delta.rented(), delta.isbn()})
+                        .toList();
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(APPLY_SQL, updates);
+                    checkpoint(last);
+                });
+                log.info("Replayed buffered inventory changes for {} ISBNs from {}", replayed.size(), journalDirectory);
+            }
+            journal.deleteUpTo(last);
+            journal.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the inventory journal in " + journalDirectory, e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (journal == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Final inventory flush failed; the journal will be replayed on next start", e);
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close the inventory journal", e);
+        }
+        journal = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return journal != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
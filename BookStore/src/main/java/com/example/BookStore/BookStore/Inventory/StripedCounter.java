@@ -0,0 +1,57 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Bounded counter whose permits are spread over several padded cells, so that
+ * threads renting the same title mostly CAS on different cache lines. A
+ * decrement never takes a cell below zero, which means the sum can never go
+ * negative no matter how many threads race on it.
+ */
+class StripedCounter {
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicIntegerArray cells;
+
+    StripedCounter(int stripes, int initial) {
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        int share = initial / stripes;
+        int remainder = initial % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    boolean tryDecrement() {
+        int start = home();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            int value = cells.get(index);
+            while (value > 0) {
+                if (cells.compareAndSet(index, value, value - 1)) {
+                    return true;
+                }
+                value = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    void increment() {
+        cells.incrementAndGet(home() * PADDING);
+    }
+
+    int sum() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private int home() {
+        return (int) (Thread.currentThread().getId() % stripes);
+    }
+}
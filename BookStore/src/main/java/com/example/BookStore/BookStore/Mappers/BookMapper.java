@@ -0,0 +1,69 @@
+package com.example.BookStore.BookStore.Mappers;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class BookMapper {
+
+    public BookDTO toDTO(BookEntity bookEntity) {
+        if (bookEntity == null) {
+            return null;
+        }
+        return new BookDTO(
+                bookEntity.getName(),
+                bookEntity.getAuthor(),
+                bookEntity.getIsbn(),
+                bookEntity.getPublisher(),
+                bookEntity.getSecurityAmount(),
+                bookEntity.getPrice(),
+                bookEntity.getTotalQuantity(),
+                bookEntity.getAvailableQuantity(),
+                bookEntity.getRentedQuantity());
+    }
+
+    public BookEntity toEntity(BookDTO bookDTO) {
+        if (bookDTO == null) {
+            return null;
+        }
+        return new BookEntity(
+                null,
+                bookDTO.getName(),
+                bookDTO.getAuthor(),
+                bookDTO.getIsbn(),
+                bookDTO.getPublisher(),
+                bookDTO.getSecurityAmount(),
+                bookDTO.getPrice(),
+                bookDTO.getTotalQuantity(),
+                bookDTO.getAvailableQuantity(),
+                bookDTO.getRentedQuantity());
+    }
+
+    public List<BookDTO> toDTOList(List<BookEntity> bookEntities) {
+        List<BookDTO> bookDTOs = new ArrayList<>(bookEntities.size());
+        for (BookEntity bookEntity : bookEntities) {
+            bookDTOs.add(toDTO(bookEntity));
+        }
+        return bookDTOs;
+    }
+
+    public BookDTO copy(BookDTO bookDTO) {
+        if (bookDTO == null) {
+            return null;
+        }
+        return new BookDTO(
+                bookDTO.getName(),
+                bookDTO.getAuthor(),
+                bookDTO.getIsbn(),
+                bookDTO.getPublisher(),
+                bookDTO.getSecurityAmount(),
+                bookDTO.getPrice(),
+                bookDTO.getTotalQuantity(),
+                bookDTO.getAvailableQuantity(),
+                bookDTO.getRentedQuantity());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.BookStore.BookStore.Metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InventoryMetrics {
+    private final Counter rented;
+    private final Counter rentSoldOut;
+    private final Counter rentRejectedByCounter;
+    private final Counter returned;
+    private final Counter returnNothingRented;
+
+    public InventoryMetrics(MeterRegistry meterRegistry) {
+        this.rented = outcome(meterRegistry, "rent", "success");
+        this.rentSoldOut = outcome(meterRegistry, "rent", "sold_out");
+        this.rentRejectedByCounter = outcome(meterRegistry, "rent", "counter_rejected");
+        this.returned = outcome(meterRegistry, "return", "success");
+        this.returnNothingRented = outcome(meterRegistry, "return", "nothing_rented");
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String operation, String outcome) {
+        return Counter.builder("bookstore.inventory.operations")
+                .description("Rent and return attempts by outcome; anything but success is a conflict")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public void rented() {
+        rented.increment();
+    }
+
+    public void rented(int copies) {
+        rented.increment(copies);
+    }
+
+    public void rentSoldOut() {
+        rentSoldOut.increment();
+    }
+
+    public void rentRejectedByCounter() {
+        rentRejectedByCounter.increment();
+    }
+
+    public void returned() {
+        returned.increment();
+    }
+
+    public void returned(int copies) {
+        returned.increment(copies);
+    }
+
+    public void returnNothingRented() {
+        returnNothingRented.increment();
+    }
+}
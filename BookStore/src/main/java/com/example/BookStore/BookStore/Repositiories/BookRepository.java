@@ -1,15 +1,35 @@
 package com.example.BookStore.BookStore.Repositiories;
 
+import com.example.BookStore.BookStore.DTO.BookDTO;
 import com.example.BookStore.BookStore.Entities.BookEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<BookEntity, Long> {
+    /**
+     * Reads straight into {@link BookDTO}: no managed entities, so nothing is
+     * tracked or snapshotted in the persistence context for these reads.
+     */
+    String SELECT_BOOK_DTO = "select new com.example.BookStore.BookStore.DTO.BookDTO(b.name, b.author, b.isbn, b.publisher, " +
+            "b.securityAmount, b.price, b.totalQuantity, b.availableQuantity, b.rentedQuantity) from BookEntity b ";
+
     List<BookEntity> findByName(String bookName);
 
     Optional<BookEntity> findByIsbn(String isbn);
@@ -18,4 +38,88 @@ public interface BookRepository extends JpaRepository<BookEntity, Long> {
     void deleteByIsbn(String isbn);
 
     boolean existsByIsbn(String isbn);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BookEntity b where b.isbn = :isbn")
+    Optional<BookEntity> findForUpdateByIsbn(@Param("isbn") String isbn);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from BookEntity b where b.isbn in :isbns order by b.isbn")
+    List<BookEntity> findAllForUpdateByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Query("select b.isbn from BookEntity b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query(SELECT_BOOK_DTO + "where b.name = :name")
+    List<BookDTO> findBookDTOsByName(@Param("name") String name);
+
+    @Query(SELECT_BOOK_DTO + "where b.isbn = :isbn")
+    Optional<BookDTO> findBookDTOByIsbn(@Param("isbn") String isbn);
+
+    @Query(SELECT_BOOK_DTO + "order by b.id")
+    List<BookDTO> findAllBookDTOs();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<BookEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from BookEntity b order by b.id")
+    Stream<BookEntity> streamAllBy();
+
+    /**
+     * Sets the descriptive fields and availableQuantity; rentedQuantity is left
+     * to the rental paths and totalQuantity is derived from the counts and the
+     * copies still on hold.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookEntity b set b.name = :#{#book.name}, b.author = :#{#book.author}, b.publisher = :#{#book.publisher}, " +
+            "b.securityAmount = :#{#book.securityAmount}, b.price = :#{#book.price}, " +
+            "b.availableQuantity = coalesce(:#{#book.availableQuantity}, b.availableQuantity), " +
+            "b.totalQuantity = coalesce(:#{#book.availableQuantity}, b.availableQuantity) + b.rentedQuantity + " +
+            "(select coalesce(sum(r.quantity), 0) from BookReservation r where r.isbn = b.isbn) " +
+            "where b.isbn = :#{#book.isbn}")
+    int updateByIsbn(@Param("book") BookEntity book);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from BookEntity b where b.isbn = :isbn and b.rentedQuantity = 0 " +
+            "and not exists (select 1 from BookReservation r where r.isbn = :isbn)")
+    int deleteUnrentedByIsbn(@Param("isbn") String isbn);
+
+    @Query("select b.availableQuantity from BookEntity b where b.isbn = :isbn")
+    Optional<Integer> findAvailableQuantityByIsbn(@Param("isbn") String isbn);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookEntity b set b.availableQuantity = b.availableQuantity - 1, b.rentedQuantity = b.rentedQuantity + 1 " +
+            "where b.isbn = :isbn and b.availableQuantity > 0")
+    int rentByIsbn(@Param("isbn") String isbn);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookEntity b set b.availableQuantity = b.availableQuantity + 1, b.rentedQuantity = b.rentedQuantity - 1 " +
+            "where b.isbn = :isbn and b.rentedQuantity > 0")
+    int returnByIsbn(@Param("isbn") String isbn);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookEntity b set b.availableQuantity = b.availableQuantity - :quantity " +
+            "where b.isbn = :isbn and b.availableQuantity >= :quantity")
+    int holdByIsbn(@Param("isbn") String isbn, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookEntity b set b.availableQuantity = b.availableQuantity + :quantity where b.isbn = :isbn")
+    int releaseHeldByIsbn(@Param("isbn") String isbn, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update BookEntity b set b.rentedQuantity = b.rentedQuantity + :quantity where b.isbn = :isbn")
+    int rentHeldByIsbn(@Param("isbn") String isbn, @Param("quantity") int quantity);
+
+    List<BookEntity> findByIsbnIn(Collection<String> isbns);
 }
@@ -0,0 +1,24 @@
+package com.example.BookStore.BookStore.Repositiories;
+
+import com.example.BookStore.BookStore.Entities.BookReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookReservationRepository extends JpaRepository<BookReservation, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from BookReservation r where r.id = :id")
+    Optional<BookReservation> findForUpdateById(@Param("id") String id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from BookReservation r where r.id in :ids and r.expiresAt <= :now")
+    List<BookReservation> findAllExpiredForUpdateByIdIn(@Param("ids") Collection<String> ids, @Param("now") long now);
+}
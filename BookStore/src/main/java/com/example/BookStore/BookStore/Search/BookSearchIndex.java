@@ -0,0 +1,158 @@
+package com.example.BookStore.BookStore.Search;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over name, author and publisher. Tokens are
+ * case- and accent-folded and kept in a sorted map, so a query token matches
+ * every indexed token it is a prefix of. Writers are serialised; readers never
+ * block.
+ */
+public class BookSearchIndex {
+    static final int NAME = 1;
+    static final int AUTHOR = 2;
+    static final int PUBLISHER = 4;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ConcurrentMap<String, BookDTO> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, ConcurrentMap<String, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    public synchronized void upsert(BookDTO book) {
+        BookDTO previous = documents.put(book.getIsbn(), book);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(book);
+    }
+
+    public synchronized void remove(String isbn) {
+        BookDTO previous = documents.remove(isbn);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public SearchResult search(String query, int page, int size) {
+        Set<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new SearchResult(List.of(), 0);
+        }
+        Map<String, Integer> scores = new HashMap<>();
+        Map<String, Integer> matchedTokens = new HashMap<>();
+        for (String queryToken : queryTokens) {
+            Map<String, Integer> tokenScores = new HashMap<>();
+            NavigableMap<String, ConcurrentMap<String, Integer>> matches =
+                    postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false);
+            for (Map.Entry<String, ConcurrentMap<String, Integer>> match : matches.entrySet()) {
+                boolean exact = match.getKey().equals(queryToken);
+                for (Map.Entry<String, Integer> posting : match.getValue().entrySet()) {
+                    tokenScores.merge(posting.getKey(), score(posting.getValue(), exact), Math::max);
+                }
+            }
+            tokenScores.forEach((isbn, score) -> {
+                scores.merge(isbn, score, Integer::sum);
+                matchedTokens.merge(isbn, 1, Integer::sum);
+            });
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        scores.forEach((isbn, score) -> {
+            BookDTO book = documents.get(isbn);
+            if (book != null && matchedTokens.get(isbn) == queryTokens.size()) {
+                hits.add(new Hit(book, score));
+            }
+        });
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(hit -> String.valueOf(hit.book().getName()))
+                .thenComparing(hit -> hit.book().getIsbn()));
+
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<BookDTO> books = new ArrayList<>(to - from);
+        for (Hit hit : hits.subList(from, to)) {
+            books.add(hit.book());
+        }
+        return new SearchResult(books, hits.size());
+    }
+
+    private void index(BookDTO book) {
+        tokens(book).forEach((token, fields) ->
+                postings.computeIfAbsent(token, key -> new ConcurrentHashMap<>()).put(book.getIsbn(), fields));
+    }
+
+    private void unindex(BookDTO book) {
+        for (String token : tokens(book).keySet()) {
+            ConcurrentMap<String, Integer> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(book.getIsbn());
+                if (posting.isEmpty()) {
+                    postings.remove(token, posting);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> tokens(BookDTO book) {
+        Map<String, Integer> tokens = new HashMap<>();
+        tokenize(book.getName()).forEach(token -> tokens.merge(token, NAME, (a, b) -> a | b));
+        tokenize(book.getAuthor()).forEach(token -> tokens.merge(token, AUTHOR, (a, b) -> a | b));
+        tokenize(book.getPublisher()).forEach(token -> tokens.merge(token, PUBLISHER, (a, b) -> a | b));
+        return tokens;
+    }
+
+    private static int score(int fields, boolean exact) {
+        int score = 0;
+        if ((fields & NAME) != 0) {
+            score = Math.max(score, 3);
+        }
+        if ((fields & AUTHOR) != 0) {
+            score = Math.max(score, 2);
+        }
+        if ((fields & PUBLISHER) != 0) {
+            score = Math.max(score, 1);
+        }
+        return exact ? score * 2 : score;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public record SearchResult(List<BookDTO> books, long totalHits) {
+    }
+
+    private record Hit(BookDTO book, int score) {
+    }
+}
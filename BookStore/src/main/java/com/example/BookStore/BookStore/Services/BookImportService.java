@@ -0,0 +1,237 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BulkImportReport;
+import com.example.BookStore.BookStore.DTO.BulkImportRowResult;
+import com.example.BookStore.BookStore.DTO.BulkImportRowResult.Status;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk catalog loader. Rows are parsed one at a time from the request body and
+ * handled in chunks: one set-based ISBN lookup per chunk, then a single JDBC
+ * batch insert, which sidesteps the per-row inserts that IDENTITY ids force
+ * on Hibernate. Each committed chunk is announced as one
+ * {@link BooksImportedEvent}. The report lists only rejected rows unless
+ * errorsOnly is false; a body that stops parsing ends the import as ABORTED
+ * with the line it failed on.
+ */
+@Service
+public class BookImportService {
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private static final String INSERT_SQL = "insert into book_entity " +
+            "(name, author, isbn, publisher, security_amount, price, total_quantity, available_quantity, rented_quantity) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+
+    public BookImportService(BookRepository bookRepository,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${bookstore.import.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.jsonReader = objectMapper.readerFor(BookDTO.class);
+        this.csvReader = new CsvMapper()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .readerFor(BookDTO.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkImportReport importBooks(InputStream body, MediaType contentType, boolean errorsOnly) throws IOException {
+        ObjectReader reader = TEXT_CSV.includes(contentType) ? csvReader : jsonReader;
+        BulkImportReport report = new BulkImportReport();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        try (MappingIterator<BookDTO> rows = reader.readValues(body)) {
+            while (true) {
+                BookDTO bookDTO;
+                rowNumber++;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    bookDTO = rows.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    record(report, new BulkImportRowResult(rowNumber, null, Status.INVALID, List.of(String.valueOf(e.getMessage()))), errorsOnly);
+                    report.setStatus(BulkImportReport.Status.ABORTED);
+                    report.setAbortedAtLine(line(e, rows));
+                    break;
+                }
+                chunk.add(new Row(rowNumber, bookDTO));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report, errorsOnly);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report, errorsOnly);
+        }
+        report.getRows().sort(Comparator.comparingLong(BulkImportRowResult::getRow));
+        return report;
+    }
+
+    private void importChunk(List<Row> chunk, BulkImportReport report, boolean errorsOnly) {
+        List<Row> candidates = new ArrayList<>(chunk.size());
+        Set<String> seen = new HashSet<>();
+        for (Row row : chunk) {
+            List<String> errors = validate(row.book());
+            if (!errors.isEmpty()) {
+                record(report, new BulkImportRowResult(row.number(), row.book().getIsbn(), Status.INVALID, errors), errorsOnly);
+            } else if (!seen.add(row.book().getIsbn())) {
+                record(report, new BulkImportRowResult(row.number(), row.book().getIsbn(), Status.DUPLICATE, List.of("ISBN repeated in this import")), errorsOnly);
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<Row> inserted;
+        try {
+            Set<String> existing = transactionTemplate.execute(status -> insertNew(candidates));
+            inserted = new ArrayList<>(candidates.size());
+            for (Row row : candidates) {
+                if (existing.contains(row.book().getIsbn())) {
+                    record(report, new BulkImportRowResult(row.number(), row.book().getIsbn(), Status.DUPLICATE, List.of("ISBN already present.")), errorsOnly);
+                } else {
+                    inserted.add(row);
+                }
+            }
+        } catch (DataIntegrityViolationException e) {
+            inserted = insertOneByOne(candidates, report, errorsOnly);
+        }
+        List<BookDTO> books = new ArrayList<>(inserted.size());
+        for (Row row : inserted) {
+            record(report, new BulkImportRowResult(row.number(), row.book().getIsbn(), Status.INSERTED, List.of()), errorsOnly);
+            books.add(row.book());
+        }
+        if (!books.isEmpty()) {
+            eventPublisher.publishEvent(new BooksImportedEvent(books));
+        }
+    }
+
+    private static long line(Exception e, MappingIterator<?> rows) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException parseError && parseError.getLocation() != null) {
+                return parseError.getLocation().getLineNr();
+            }
+        }
+        return rows.getCurrentLocation().getLineNr();
+    }
+
+    private Set<String> insertNew(List<Row> candidates) {
+        Set<String> existing = bookRepository.findExistingIsbns(candidates.stream().map(row -> row.book().getIsbn()).toList());
+        List<Row> toInsert = candidates.stream().filter(row -> !existing.contains(row.book().getIsbn())).toList();
+        if (toInsert.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, toInsert, toInsert.size(), (ps, row) -> {
+            Object[] values = values(row.book());
+            for (int i = 0; i < values.length; i++) {
+                ps.setObject(i + 1, values[i]);
+            }
+        });
+        return existing;
+    }
+
+    private List<Row> insertOneByOne(List<Row> candidates, BulkImportReport report, boolean errorsOnly) {
+        List<Row> inserted = new ArrayList<>(candidates.size());
+        for (Row row : candidates) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, values(row.book()));
+                inserted.add(row);
+            } catch (DataIntegrityViolationException e) {
+                record(report, new BulkImportRowResult(row.number(), row.book().getIsbn(), Status.DUPLICATE, List.of("ISBN already present.")), errorsOnly);
+            } catch (RuntimeException e) {
+                record(report, new BulkImportRowResult(row.number(), row.book().getIsbn(), Status.FAILED, List.of(String.valueOf(e.getMessage()))), errorsOnly);
+            }
+        }
+        return inserted;
+    }
+
+    private List<String> validate(BookDTO bookDTO) {
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(bookDTO);
+        List<String> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<BookDTO> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private Object[] values(BookDTO bookDTO) {
+        int available = bookDTO.getAvailableQuantity() == null ? 0 : bookDTO.getAvailableQuantity();
+        int rented = bookDTO.getRentedQuantity() == null ? 0 : bookDTO.getRentedQuantity();
+        bookDTO.setAvailableQuantity(available);
+        bookDTO.setRentedQuantity(rented);
+        bookDTO.setTotalQuantity(available + rented);
+        return new Object[]{
+                bookDTO.getName(),
+                bookDTO.getAuthor(),
+                bookDTO.getIsbn(),
+                bookDTO.getPublisher(),
+                bookDTO.getSecurityAmount(),
+                bookDTO.getPrice(),
+                bookDTO.getTotalQuantity(),
+                bookDTO.getAvailableQuantity(),
+                bookDTO.getRentedQuantity()
+        };
+    }
+
+    private void record(BulkImportReport report, BulkImportRowResult result, boolean errorsOnly) {
+        report.setTotal(report.getTotal() + 1);
+        if (result.getStatus() == Status.INSERTED) {
+            report.setInserted(report.getInserted() + 1);
+            if (errorsOnly) {
+                return;
+            }
+        } else {
+            report.setRejected(report.getRejected() + 1);
+        }
+        report.getRows().add(result);
+    }
+
+    private record Row(long number, BookDTO book) {
+    }
+}
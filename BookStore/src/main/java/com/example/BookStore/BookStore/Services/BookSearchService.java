@@ -0,0 +1,125 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookSearchResultDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Search.BookSearchIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a {@link BookSearchIndex} of the catalog. A rebuild loads a fresh
+ * index off to the side and swaps it in, so books deleted since the last load
+ * drop out. Changes that arrive during the scan go to the live index and are
+ * queued for the new one, which replays them before the swap.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookSearchService {
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final Object rebuildLock = new Object();
+    private volatile BookSearchIndex bookSearchIndex = new BookSearchIndex();
+    private List<Consumer<BookSearchIndex>> pendingChanges;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            BookSearchIndex rebuilt = bookSearchIndex;
+            try {
+                BookSearchIndex loading = new BookSearchIndex();
+                long after = 0L;
+                List<BookEntity> bookEntities;
+                do {
+                    bookEntities = bookRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_BATCH_SIZE));
+                    for (BookEntity bookEntity : bookEntities) {
+                        loading.upsert(bookMapper.toDTO(bookEntity));
+                        after = bookEntity.getId();
+                    }
+                } while (bookEntities.size() == LOAD_BATCH_SIZE);
+                rebuilt = loading;
+            } finally {
+                synchronized (this) {
+                    for (Consumer<BookSearchIndex> change : pendingChanges) {
+                        change.accept(rebuilt);
+                    }
+                    pendingChanges = null;
+                    bookSearchIndex = rebuilt;
+                }
+            }
+        }
+    }
+
+    private synchronized void apply(Consumer<BookSearchIndex> change) {
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+        change.accept(bookSearchIndex);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.ChangeType.DELETED) {
+            apply(index -> index.remove(event.getIsbn()));
+        } else if (event.getBook() != null) {
+            BookDTO book = bookMapper.copy(event.getBook());
+            apply(index -> index.upsert(book));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksImported(BooksImportedEvent event) {
+        List<BookDTO> books = event.getBooks().stream().map(bookMapper::copy).toList();
+        apply(index -> books.forEach(index::upsert));
+    }
+
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (event.isAll()) {
+            rebuild();
+            return;
+        }
+        Set<String> missing = new HashSet<>(event.getIsbns());
+        List<BookDTO> found = new ArrayList<>();
+        for (BookEntity bookEntity : bookRepository.findByIsbnIn(event.getIsbns())) {
+            missing.remove(bookEntity.getIsbn());
+            found.add(bookMapper.toDTO(bookEntity));
+        }
+        apply(index -> {
+            found.forEach(index::upsert);
+            missing.forEach(index::remove);
+        });
+    }
+
+    public BookSearchResultDTO search(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        BookSearchIndex.SearchResult result = bookSearchIndex.search(query, pageNumber, pageSize);
+        List<BookDTO> books = new ArrayList<>(result.books().size());
+        for (BookDTO book : result.books()) {
+            books.add(bookMapper.copy(book));
+        }
+        return new BookSearchResultDTO(books, result.totalHits(), pageNumber, pageSize);
+    }
+}
@@ -1,104 +1,333 @@
 package com.example.BookStore.BookStore.Services;
 
+import com.example.BookStore.BookStore.Caches.BookIsbnCache;
+import com.example.BookStore.BookStore.Caches.RequestCoalescer;
 import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.DataSources.RecentWrites;
+import com.example.BookStore.BookStore.DataSources.ReplicaRoutingDataSource;
 import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
 import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
 import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
 import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Inventory.InventoryCounters;
+import com.example.BookStore.BookStore.Inventory.InventoryWriteBehindBuffer;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Metrics.InventoryMetrics;
 import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookService {
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final BookRepository bookRepository;
-    private final ModelMapper modelMapper;
+    private final BookMapper bookMapper;
+    private final InventoryCounters inventoryCounters;
+    private final InventoryMetrics inventoryMetrics;
+    private final EntityManager entityManager;
+    private final BookIsbnCache bookIsbnCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryWriteBehindBuffer inventoryBuffer;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final RequestCoalescer requestCoalescer;
+    private final RecentWrites recentWrites;
 
     public BookDTO addBook(BookDTO bookDTO) {
-        if (bookRepository.existsByIsbn(bookDTO.getIsbn())) {
-            throw new ResourceAlreadyExist("ISBN already present.");
-        }
-        BookEntity bookEntity = modelMapper.map(bookDTO, BookEntity.class);
+        BookEntity bookEntity = bookMapper.toEntity(bookDTO);
         bookEntity.setTotalQuantity(bookEntity.getRentedQuantity() + bookEntity.getAvailableQuantity());
-        bookEntity = bookRepository.save(bookEntity);
-        return modelMapper.map(bookEntity, BookDTO.class);
+        try {
+            bookEntity = bookRepository.save(bookEntity);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw ResourceAlreadyExist.ISBN_PRESENT;
+            }
+            throw e;
+        }
+        inventoryCounters.invalidate(bookDTO.getIsbn());
+        return publish(ChangeType.ADDED, bookMapper.toDTO(bookEntity));
     }
 
     public List<BookDTO> getBooksByName(String bookName) {
-        List<BookEntity> bookEntities = bookRepository.findByName(bookName);
-        if (bookEntities.isEmpty()) {
-            throw new ResourceNotFound("No book of this name found");
+        if (catalogSnapshotService.isReady()) {
+            List<BookDTO> books = catalogSnapshotService.getByName(bookName);
+            if (books.isEmpty()) {
+                throw ResourceNotFound.NO_BOOK_OF_NAME;
+            }
+            return books;
         }
-        return bookEntities.stream()
-                .map(bookEntity -> modelMapper.map(bookEntity, BookDTO.class))
-                .collect(Collectors.toList());
+        return requestCoalescer.execute("name", bookName, () -> {
+            List<BookDTO> books = ReplicaRoutingDataSource.onReplica(() -> bookRepository.findBookDTOsByName(bookName));
+            if (books.isEmpty()) {
+                throw ResourceNotFound.NO_BOOK_OF_NAME;
+            }
+            return books;
+        }, books -> books.stream().map(bookMapper::copy).toList());
     }
 
     public BookDTO getBookByIsbn(String isbn) {
-        BookEntity book = bookRepository.findByIsbn(isbn).orElseThrow(()-> new ResourceNotFound("No Book of this ISBN found"));
-        return modelMapper.map(book,BookDTO.class);
+        if (catalogSnapshotService.isReady()) {
+            BookDTO book = catalogSnapshotService.getByIsbn(isbn);
+            if (book != null) {
+                return inventoryBuffer.overlay(book);
+            }
+        }
+        BookDTO cached = bookIsbnCache.getIfPresent(isbn);
+        if (cached != null) {
+            return inventoryBuffer.overlay(cached);
+        }
+        return inventoryBuffer.overlay(bookIsbnCache.get(isbn, key -> {
+            Optional<BookDTO> book = recentWrites.contains(key)
+                    ? bookRepository.findBookDTOByIsbn(key)
+                    : ReplicaRoutingDataSource.onReplica(() -> bookRepository.findBookDTOByIsbn(key));
+            return book.orElseThrow(() -> ResourceNotFound.NO_BOOK_OF_ISBN);
+        }));
     }
 
     public List<BookDTO> getAllBooks() {
-        List<BookEntity> bookEntities = bookRepository.findAll();
-        if (bookEntities.isEmpty()) {
-            throw new ResourceNotFound("No Books found");
+        if (catalogSnapshotService.isReady()) {
+            List<BookDTO> books = catalogSnapshotService.getAll();
+            if (books.isEmpty()) {
+                throw ResourceNotFound.NO_BOOKS;
+            }
+            return books;
+        }
+        List<BookDTO> books = ReplicaRoutingDataSource.onReplica(bookRepository::findAllBookDTOs);
+        if (books.isEmpty()) {
+            throw ResourceNotFound.NO_BOOKS;
+        }
+        return books;
+    }
+
+    public BookPageDTO getBooksPage(Long after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<BookEntity> bookEntities = ReplicaRoutingDataSource.onReplica(
+                () -> bookRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(pageSize)));
+        List<BookDTO> books = bookMapper.toDTOList(bookEntities);
+        Long nextCursor = bookEntities.size() == pageSize ? bookEntities.get(pageSize - 1).getId() : null;
+        return new BookPageDTO(books, nextCursor);
+    }
+
+    @Transactional
+    public void streamAllBooks(Consumer<BookDTO> consumer) {
+        try (Stream<BookEntity> bookEntities = bookRepository.streamAllBy()) {
+            bookEntities.forEach(bookEntity -> {
+                consumer.accept(bookMapper.toDTO(bookEntity));
+                entityManager.detach(bookEntity);
+            });
         }
-        return bookEntities.stream().map(bookEntity -> modelMapper.map(bookEntity, BookDTO.class)).collect(Collectors.toList());
     }
 
+    @Transactional
     public BookDTO updateBook(BookDTO bookDTO) {
-        if(!bookRepository.existsByIsbn(bookDTO.getIsbn())) {
-            throw new ResourceNotFound("ISBN not found!!");
+        inventoryBuffer.drain(List.of(bookDTO.getIsbn()));
+        BookEntity bookEntity = bookMapper.toEntity(bookDTO);
+        if (bookRepository.updateByIsbn(bookEntity) == 0) {
+            throw ResourceNotFound.ISBN_NOT_FOUND;
         }
-        BookEntity book = bookRepository.findByIsbn(bookDTO.getIsbn()).orElseThrow(() -> new ResourceNotFound("ISBN not found!!"));
-        BookEntity bookEntity = modelMapper.map(bookDTO, BookEntity.class);
-        bookEntity.setId(book.getId());
-        bookEntity = bookRepository.save(bookEntity);
-        return modelMapper.map(bookEntity, BookDTO.class);
+        inventoryCounters.invalidate(bookDTO.getIsbn());
+        return publish(ChangeType.UPDATED, readBack(bookDTO.getIsbn()));
     }
 
+    /**
+     * Locks the row before the conditional DELETE, so a concurrent delete
+     * either finishes first (404) or waits for this one. Once the row is
+     * held, a DELETE that removes nothing means rented or held copies (409).
+     */
+    @Transactional
     public BookDTO deleteBookByIsbn(String isbn) {
-        BookEntity book = bookRepository.findByIsbn(isbn).orElseThrow(() -> new ResourceNotFound("No Book of this ISBN found"));
-        if (book.getRentedQuantity() != 0) {
-            throw new IllegalStateException("Cannot delete the book because it has rented copies.");
+        inventoryBuffer.drain(List.of(isbn));
+        BookEntity bookEntity = bookRepository.findForUpdateByIsbn(isbn).orElseThrow(() -> ResourceNotFound.NO_BOOK_OF_ISBN);
+        if (bookRepository.deleteUnrentedByIsbn(isbn) == 0) {
+            throw ResourceNotAvailable.HAS_RENTED_OR_HELD_COPIES;
         }
-        bookRepository.deleteByIsbn(isbn);
-        return modelMapper.map(book,BookDTO.class);
+        inventoryCounters.invalidate(isbn);
+        return publish(ChangeType.DELETED, bookMapper.toDTO(bookEntity));
     }
 
     @Transactional
     public BookDTO rentBook(String isbn) {
-        BookEntity bookEntity = bookRepository
-                .findByIsbn(isbn)
-                .orElseThrow(()->new ResourceNotFound("ISBN not found!!"));
-
-        if(bookEntity.getAvailableQuantity() == 0){
-            throw new ResourceNotAvailable("All the Books are Rented");
+        if (inventoryBuffer.isEnabled()) {
+            return rentBuffered(countCopies(List.of(isbn))).get(0);
+        }
+        if (!inventoryCounters.tryAcquire(isbn, this::loadAvailableQuantity)) {
+            inventoryMetrics.rentRejectedByCounter();
+            throw ResourceNotAvailable.ALL_RENTED;
         }
-        bookEntity.setRentedQuantity(bookEntity.getRentedQuantity() + 1);
-        bookEntity.setAvailableQuantity(bookEntity.getAvailableQuantity() - 1);
+        if (bookRepository.rentByIsbn(isbn) == 0) {
+            inventoryCounters.invalidate(isbn);
+            bookRepository.findByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND);
+            inventoryMetrics.rentSoldOut();
+            throw ResourceNotAvailable.ALL_RENTED;
+        }
+        inventoryMetrics.rented();
+        return publish(ChangeType.RENTED, readBack(isbn));
+    }
 
-        bookRepository.saveAndFlush(bookEntity);
+    @Transactional
+    public BookDTO returnBook(String isbn) {
+        if (inventoryBuffer.isEnabled()) {
+            return returnBuffered(countCopies(List.of(isbn))).get(0);
+        }
+        if (bookRepository.returnByIsbn(isbn) == 0) {
+            bookRepository.findByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND);
+            inventoryMetrics.returnNothingRented();
+            throw ResourceNotFound.NOTHING_RENTED;
+        }
+        inventoryMetrics.returned();
+        inventoryCounters.release(isbn);
+        return publish(ChangeType.RETURNED, readBack(isbn));
+    }
 
-        return modelMapper.map(bookEntity, BookDTO.class);
+    /**
+     * Rents every copy in the cart or none of them. Rows are locked in ISBN
+     * order so overlapping carts cannot deadlock, and the resulting updates are
+     * flushed together as one JDBC batch at commit.
+     */
+    @Transactional
+    public List<BookDTO> rentBooks(List<String> isbns) {
+        SortedMap<String, Integer> copies = countCopies(isbns);
+        if (inventoryBuffer.isEnabled()) {
+            return rentBuffered(copies);
+        }
+        List<BookEntity> books = lockBooks(copies);
+        for (BookEntity book : books) {
+            if (book.getAvailableQuantity() < copies.get(book.getIsbn())) {
+                inventoryMetrics.rentSoldOut();
+                throw new ResourceNotAvailable("All the Books are Rented for ISBN " + book.getIsbn());
+            }
+        }
+        List<BookDTO> rented = new ArrayList<>(books.size());
+        for (BookEntity book : books) {
+            int count = copies.get(book.getIsbn());
+            book.setAvailableQuantity(book.getAvailableQuantity() - count);
+            book.setRentedQuantity(book.getRentedQuantity() + count);
+            inventoryCounters.invalidate(book.getIsbn());
+            inventoryMetrics.rented(count);
+            rented.add(publish(ChangeType.RENTED, bookMapper.toDTO(book)));
+        }
+        return rented;
     }
 
     @Transactional
-    public BookDTO returnBook(String isbn) {
-        BookEntity bookEntity = bookRepository.findByIsbn(isbn).orElseThrow(()->new ResourceNotFound("ISBN not found!!"));
-        if(bookEntity.getRentedQuantity() == 0){
-            throw new ResourceNotFound("No rented copies for this book there");
-        }
-        bookEntity.setRentedQuantity(bookEntity.getRentedQuantity() - 1);
-        bookEntity.setAvailableQuantity(bookEntity.getAvailableQuantity() + 1);
-        bookRepository.saveAndFlush(bookEntity);
-        return modelMapper.map(bookEntity, BookDTO.class);
+    public List<BookDTO> returnBooks(List<String> isbns) {
+        SortedMap<String, Integer> copies = countCopies(isbns);
+        if (inventoryBuffer.isEnabled()) {
+            return returnBuffered(copies);
+        }
+        List<BookEntity> books = lockBooks(copies);
+        for (BookEntity book : books) {
+            if (book.getRentedQuantity() < copies.get(book.getIsbn())) {
+                inventoryMetrics.returnNothingRented();
+                throw new ResourceNotFound("No rented copies for this book there: " + book.getIsbn());
+            }
+        }
+        List<BookDTO> returned = new ArrayList<>(books.size());
+        for (BookEntity book : books) {
+            int count = copies.get(book.getIsbn());
+            book.setAvailableQuantity(book.getAvailableQuantity() + count);
+            book.setRentedQuantity(book.getRentedQuantity() - count);
+            inventoryCounters.invalidate(book.getIsbn());
+            inventoryMetrics.returned(count);
+            returned.add(publish(ChangeType.RETURNED, bookMapper.toDTO(book)));
+        }
+        return returned;
+    }
+
+    private List<BookDTO> rentBuffered(SortedMap<String, Integer> copies) {
+        Optional<String> soldOut = inventoryBuffer.tryRent(copies, this::loadStock);
+        if (soldOut.isPresent()) {
+            inventoryMetrics.rentSoldOut();
+            throw copies.size() == 1 ? ResourceNotAvailable.ALL_RENTED : new ResourceNotAvailable("All the Books are Rented for ISBN " + soldOut.get());
+        }
+        List<BookDTO> rented = new ArrayList<>(copies.size());
+        copies.forEach((isbn, count) -> {
+            inventoryMetrics.rented(count);
+            rented.add(publish(ChangeType.RENTED, getBookByIsbn(isbn)));
+        });
+        return rented;
+    }
+
+    private List<BookDTO> returnBuffered(SortedMap<String, Integer> copies) {
+        Optional<String> nothingRented = inventoryBuffer.tryReturn(copies, this::loadStock);
+        if (nothingRented.isPresent()) {
+            inventoryMetrics.returnNothingRented();
+            throw copies.size() == 1 ? ResourceNotFound.NOTHING_RENTED : new ResourceNotFound("No rented copies for this book there: " + nothingRented.get());
+        }
+        List<BookDTO> returned = new ArrayList<>(copies.size());
+        copies.forEach((isbn, count) -> {
+            inventoryMetrics.returned(count);
+            returned.add(publish(ChangeType.RETURNED, getBookByIsbn(isbn)));
+        });
+        return returned;
+    }
+
+    private static SortedMap<String, Integer> countCopies(List<String> isbns) {
+        SortedMap<String, Integer> copies = new TreeMap<>();
+        for (String isbn : isbns) {
+            copies.merge(isbn, 1, Integer::sum);
+        }
+        return copies;
+    }
+
+    private List<BookEntity> lockBooks(Map<String, Integer> copies) {
+        List<BookEntity> books = bookRepository.findAllForUpdateByIsbnIn(copies.keySet());
+        if (books.size() != copies.size()) {
+            Set<String> missing = new TreeSet<>(copies.keySet());
+            books.forEach(book -> missing.remove(book.getIsbn()));
+            throw new ResourceNotFound("ISBN not found!! " + String.join(", ", missing));
+        }
+        return books;
+    }
+
+    /**
+     * Reads a row back after this transaction's UPDATE. MySQL has no UPDATE
+     * ... RETURNING, and the new values are computed in SQL from the old ones
+     * (and, for updateBook, from held copies), so the response needs this
+     * read. The UPDATE still holds the row lock, so the read sees exactly what
+     * this write left.
+     */
+    private BookDTO readBack(String isbn) {
+        return bookMapper.toDTO(bookRepository.findByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND));
+    }
+
+    private BookDTO publish(ChangeType type, BookDTO bookDTO) {
+        eventPublisher.publishEvent(new BookChangedEvent(type, bookDTO.getIsbn(), bookDTO));
+        return bookDTO;
+    }
+
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+    }
+
+    private InventoryWriteBehindBuffer.Stock loadStock(String isbn) {
+        BookEntity book = bookRepository.findByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND);
+        return new InventoryWriteBehindBuffer.Stock(book.getAvailableQuantity(), book.getRentedQuantity());
+    }
+
+    private int loadAvailableQuantity(String isbn) {
+        return bookRepository.findAvailableQuantityByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND);
     }
 }
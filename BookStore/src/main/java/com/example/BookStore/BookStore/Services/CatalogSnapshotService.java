@@ -0,0 +1,164 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.Catalog.CatalogSnapshot;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serves catalog reads from a {@link CatalogSnapshot} when
+ * bookstore.catalog.snapshot.enabled is set. The snapshot is loaded once at
+ * startup and then kept current from book change events; events that arrive
+ * while it loads are replayed on top before it goes live. Loads run one at a
+ * time, and a load that fails replays the queued events onto the snapshot
+ * already live, if any, so it keeps following writes.
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final boolean enabled;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final Object loadLock = new Object();
+    private volatile CatalogSnapshot snapshot;
+    private List<BookChangedEvent> pendingEvents;
+
+    public CatalogSnapshotService(@Value("${bookstore.catalog.snapshot.enabled:false}") boolean enabled,
+                                  BookRepository bookRepository,
+                                  BookMapper bookMapper) {
+        this.enabled = enabled;
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (loadLock) {
+            synchronized (this) {
+                pendingEvents = new ArrayList<>();
+            }
+            CatalogSnapshot loaded = snapshot;
+            try {
+                CatalogSnapshot loading = new CatalogSnapshot((int) Math.min(Integer.MAX_VALUE / 2, bookRepository.count()));
+                long after = 0L;
+                List<BookEntity> bookEntities;
+                do {
+                    bookEntities = bookRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(LOAD_BATCH_SIZE));
+                    for (BookEntity bookEntity : bookEntities) {
+                        loading.upsert(bookMapper.toDTO(bookEntity));
+                        after = bookEntity.getId();
+                    }
+                } while (bookEntities.size() == LOAD_BATCH_SIZE);
+                loaded = loading;
+            } finally {
+                synchronized (this) {
+                    if (loaded != null) {
+                        for (BookChangedEvent event : pendingEvents) {
+                            apply(loaded, event);
+                        }
+                    }
+                    pendingEvents = null;
+                    snapshot = loaded;
+                }
+            }
+            log.info("Catalog snapshot loaded with {} books", snapshot.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            } else if (snapshot != null) {
+                apply(snapshot, event);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksImported(BooksImportedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            for (BookDTO book : event.getBooks()) {
+                BookChangedEvent added = new BookChangedEvent(BookChangedEvent.ChangeType.ADDED, book.getIsbn(), book);
+                if (pendingEvents != null) {
+                    pendingEvents.add(added);
+                } else if (snapshot != null) {
+                    apply(snapshot, added);
+                }
+            }
+        }
+    }
+
+    /**
+     * Another instance changed these books; reload them from the database, or
+     * the whole catalog if invalidations were lost.
+     */
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isAll()) {
+            load();
+            return;
+        }
+        Set<String> missing = new HashSet<>(event.getIsbns());
+        for (BookEntity bookEntity : bookRepository.findByIsbnIn(event.getIsbns())) {
+            missing.remove(bookEntity.getIsbn());
+            onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.UPDATED, bookEntity.getIsbn(), bookMapper.toDTO(bookEntity)));
+        }
+        missing.forEach(isbn -> onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.DELETED, isbn, null)));
+    }
+
+    private static void apply(CatalogSnapshot target, BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.ChangeType.DELETED) {
+            target.remove(event.getIsbn());
+        } else if (event.getBook() != null) {
+            target.upsert(event.getBook());
+        }
+    }
+
+    public BookDTO getByIsbn(String isbn) {
+        return snapshot.get(isbn);
+    }
+
+    public List<BookDTO> getByName(String name) {
+        return snapshot.findByName(name);
+    }
+
+    public List<BookDTO> getAll() {
+        return snapshot.findAll();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.Caches.BookResponseCache;
+import com.example.BookStore.BookStore.Caches.CachedJson;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.DTO.BookSearchResultDTO;
+import com.example.BookStore.BookStore.DTO.BulkImportReport;
+import com.example.BookStore.BookStore.DTO.ReservationDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking face of {@link BookService} for the reactive stack. JPA stays
+ * blocking, so every call runs on a bounded scheduler with one thread per
+ * pooled connection; event-loop threads only ever see the result. Going
+ * through the same services keeps transactions, events, caches and the
+ * write-behind buffer identical to the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookService {
+    private final BookService bookService;
+    private final BookSearchService bookSearchService;
+    private final BookImportService bookImportService;
+    private final BookResponseCache bookResponseCache;
+    private final ReservationService reservationService;
+    private final Scheduler jdbcScheduler;
+    private final int streamPageSize;
+
+    public ReactiveBookService(BookService bookService,
+                               BookSearchService bookSearchService,
+                               BookImportService bookImportService,
+                               BookResponseCache bookResponseCache,
+                               ReservationService reservationService,
+                               @Value("${bookstore.reactive.jdbc-threads:${spring.datasource.hikari.maximum-pool-size:10}}") int jdbcThreads,
+                               @Value("${bookstore.reactive.queue-capacity:10000}") int queueCapacity,
+                               @Value("${bookstore.reactive.stream-page-size:500}") int streamPageSize) {
+        this.bookService = bookService;
+        this.bookSearchService = bookSearchService;
+        this.bookImportService = bookImportService;
+        this.bookResponseCache = bookResponseCache;
+        this.reservationService = reservationService;
+        this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, queueCapacity, "book-jdbc", 60, true);
+        this.streamPageSize = Math.min(streamPageSize, BookService.MAX_PAGE_SIZE);
+    }
+
+    @PreDestroy
+    public void close() {
+        jdbcScheduler.dispose();
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+
+    public Mono<BookDTO> addBook(BookDTO bookDTO) {
+        return blocking(() -> bookService.addBook(bookDTO));
+    }
+
+    /**
+     * Closes {@code body} once the import is done, which also releases the
+     * request buffers if the parser stopped before the end.
+     */
+    public Mono<BulkImportReport> importBooks(InputStream body, MediaType contentType, boolean errorsOnly) {
+        return blocking(() -> {
+            try (body) {
+                return bookImportService.importBooks(body, contentType, errorsOnly);
+            }
+        });
+    }
+
+    public Mono<List<BookDTO>> getBooksByName(String bookName) {
+        return blocking(() -> bookService.getBooksByName(bookName));
+    }
+
+    public Mono<BookSearchResultDTO> search(String query, int page, int size) {
+        return blocking(() -> bookSearchService.search(query, page, size));
+    }
+
+    /**
+     * Empty when the ISBN is unknown.
+     */
+    public Mono<CachedJson> getBookByIsbnJson(String isbn) {
+        return blocking(() -> bookResponseCache.isbn(isbn, () -> bookService.getBookByIsbn(isbn)));
+    }
+
+    /**
+     * Empty when the catalog is empty.
+     */
+    public Mono<CachedJson> getAllBooksJson() {
+        return blocking(() -> bookResponseCache.list("all", () -> {
+            List<BookDTO> bookDTOList = bookService.getAllBooks();
+            return bookDTOList.isEmpty() ? null : bookDTOList;
+        }));
+    }
+
+    public Mono<CachedJson> getBooksPageJson(Long after, int size) {
+        return blocking(() -> bookResponseCache.list("page:" + after + ":" + Math.max(1, Math.min(size, BookService.MAX_PAGE_SIZE)),
+                () -> bookService.getBooksPage(after, size)));
+    }
+
+    /**
+     * The whole catalog in id order, read one keyset page at a time. The next
+     * page is only fetched once the subscriber has taken every book of the
+     * previous one, so a slow client holds at most one page in memory and no
+     * connection between pages.
+     */
+    public Flux<BookDTO> streamAllBooks() {
+        return Flux.<BookPageDTO, Long>generate(() -> 0L, (after, sink) -> {
+                    BookPageDTO page = bookService.getBooksPage(after, streamPageSize);
+                    sink.next(page);
+                    if (page.getNextCursor() == null) {
+                        sink.complete();
+                        return after;
+                    }
+                    return page.getNextCursor();
+                })
+                .subscribeOn(jdbcScheduler)
+                .concatMapIterable(BookPageDTO::getBooks, 1);
+    }
+
+    public Mono<BookDTO> updateBook(BookDTO bookDTO) {
+        return blocking(() -> bookService.updateBook(bookDTO));
+    }
+
+    public Mono<BookDTO> rentBook(String isbn) {
+        return blocking(() -> bookService.rentBook(isbn));
+    }
+
+    public Mono<BookDTO> returnBook(String isbn) {
+        return blocking(() -> bookService.returnBook(isbn));
+    }
+
+    public Mono<ReservationDTO> hold(String isbn, int quantity) {
+        return blocking(() -> reservationService.hold(isbn, quantity));
+    }
+
+    public Mono<BookDTO> rentReservation(String reservationId) {
+        return blocking(() -> reservationService.rent(reservationId));
+    }
+
+    public Mono<BookDTO> cancelReservation(String reservationId) {
+        return blocking(() -> reservationService.cancel(reservationId));
+    }
+
+    public Mono<List<BookDTO>> rentBooks(List<String> isbns) {
+        return blocking(() -> bookService.rentBooks(isbns));
+    }
+
+    public Mono<List<BookDTO>> returnBooks(List<String> isbns) {
+        return blocking(() -> bookService.returnBooks(isbns));
+    }
+
+    public Mono<BookDTO> deleteBookByIsbn(String isbn) {
+        return blocking(() -> bookService.deleteBookByIsbn(isbn));
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.ReservationDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Entities.BookReservation;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Inventory.HashedTimingWheel;
+import com.example.BookStore.BookStore.Inventory.InventoryCounters;
+import com.example.BookStore.BookStore.Inventory.InventoryWriteBehindBuffer;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Repositiories.BookReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds copies while a customer pays. A hold takes the copies off
+ * availableQuantity at once and records a {@link BookReservation}; renting it
+ * moves the copies to rentedQuantity in one transaction, and cancelling or
+ * letting it lapse puts them back. Lapsed holds are found by a
+ * {@link HashedTimingWheel} and released a batch at a time, one locked select,
+ * one delete and one JDBC batch of book updates per batch.
+ */
+@Slf4j
+@Service
+public class ReservationService {
+    private static final String RELEASE_SQL = "update book_entity set available_quantity = available_quantity + ? where isbn = ?";
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+
+    private final BookRepository bookRepository;
+    private final BookReservationRepository reservationRepository;
+    private final BookMapper bookMapper;
+    private final InventoryCounters inventoryCounters;
+    private final InventoryWriteBehindBuffer inventoryBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration tick;
+    private final int batchSize;
+    private final HashedTimingWheel<String> wheel;
+    private final Counter held;
+    private final Counter heldSoldOut;
+    private final Counter rented;
+    private final Counter cancelled;
+    private final Counter expired;
+    private ScheduledExecutorService ticker;
+
+    public ReservationService(BookRepository bookRepository,
+                              BookReservationRepository reservationRepository,
+                              BookMapper bookMapper,
+                              InventoryCounters inventoryCounters,
+                              InventoryWriteBehindBuffer inventoryBuffer,
+                              ApplicationEventPublisher eventPublisher,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${bookstore.reservations.ttl:10m}") Duration ttl,
+                              @Value("${bookstore.reservations.tick:100ms}") Duration tick,
+                              @Value("${bookstore.reservations.wheel-size:1024}") int wheelSize,
+                              @Value("${bookstore.reservations.batch-size:500}") int batchSize) {
+        this.bookRepository = bookRepository;
+        this.reservationRepository = reservationRepository;
+        this.bookMapper = bookMapper;
+        this.inventoryCounters = inventoryCounters;
+        this.inventoryBuffer = inventoryBuffer;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        this.wheel = new HashedTimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis(), this::expire);
+        this.held = outcome(meterRegistry, "held");
+        this.heldSoldOut = outcome(meterRegistry, "sold_out");
+        this.rented = outcome(meterRegistry, "rented");
+        this.cancelled = outcome(meterRegistry, "cancelled");
+        this.expired = outcome(meterRegistry, "expired");
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("bookstore.reservations")
+                .description("Held copies by what became of the hold")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Puts every hold still in the database back on the wheel; the ones that
+     * lapsed while the application was down are released on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        reservationRepository.findAll().forEach(reservation -> wheel.schedule(reservation.getId(), reservation.getExpiresAt()));
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> wheel.advance(System.currentTimeMillis()), tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    @Transactional
+    public ReservationDTO hold(String isbn, int quantity) {
+        inventoryBuffer.drain(List.of(isbn));
+        if (bookRepository.holdByIsbn(isbn, quantity) == 0) {
+            bookRepository.findByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND);
+            heldSoldOut.increment();
+            throw ResourceNotAvailable.ALL_RENTED;
+        }
+        BookReservation reservation = reservationRepository.save(
+                new BookReservation(null, isbn, quantity, System.currentTimeMillis() + ttl.toMillis()));
+        inventoryCounters.invalidate(isbn);
+        publish(ChangeType.HELD, isbn);
+        wheel.schedule(reservation.getId(), reservation.getExpiresAt());
+        held.increment(quantity);
+        return new ReservationDTO(reservation.getId(), isbn, quantity, Instant.ofEpochMilli(reservation.getExpiresAt()));
+    }
+
+    /**
+     * Turns a hold into a rental of the held copies. A hold past its expiry
+     * counts as gone even if the wheel has not released it yet.
+     */
+    @Transactional
+    public BookDTO rent(String reservationId) {
+        BookReservation reservation = lockLive(reservationId);
+        inventoryBuffer.drain(List.of(reservation.getIsbn()));
+        reservationRepository.delete(reservation);
+        if (bookRepository.rentHeldByIsbn(reservation.getIsbn(), reservation.getQuantity()) == 0) {
+            throw ResourceNotFound.ISBN_NOT_FOUND;
+        }
+        rented.increment(reservation.getQuantity());
+        return publish(ChangeType.HOLD_RENTED, reservation.getIsbn());
+    }
+
+    @Transactional
+    public BookDTO cancel(String reservationId) {
+        BookReservation reservation = lockLive(reservationId);
+        inventoryBuffer.drain(List.of(reservation.getIsbn()));
+        reservationRepository.delete(reservation);
+        if (bookRepository.releaseHeldByIsbn(reservation.getIsbn(), reservation.getQuantity()) == 0) {
+            throw ResourceNotFound.ISBN_NOT_FOUND;
+        }
+        inventoryCounters.invalidate(reservation.getIsbn());
+        cancelled.increment(reservation.getQuantity());
+        return publish(ChangeType.RELEASED, reservation.getIsbn());
+    }
+
+    private BookReservation lockLive(String reservationId) {
+        return reservationRepository.findForUpdateById(reservationId)
+                .filter(reservation -> reservation.getExpiresAt() > System.currentTimeMillis())
+                .orElseThrow(() -> ResourceNotFound.NO_RESERVATION);
+    }
+
+    /**
+     * Called by the wheel with every reservation whose deadline passed in the
+     * last tick. Ones already rented or cancelled are simply not found. A batch
+     * that fails is put back on the wheel and retried.
+     */
+    void expire(List<String> reservationIds) {
+        for (int from = 0; from < reservationIds.size(); from += batchSize) {
+            List<String> batch = reservationIds.subList(from, Math.min(from + batchSize, reservationIds.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> expireBatch(batch));
+            } catch (RuntimeException e) {
+                log.warn("Could not release {} expired reservations; retrying", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+    }
+
+    private void expireBatch(List<String> batch) {
+        List<BookReservation> lapsed = reservationRepository.findAllExpiredForUpdateByIdIn(batch, System.currentTimeMillis());
+        if (lapsed.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> released = new TreeMap<>();
+        lapsed.forEach(reservation -> released.merge(reservation.getIsbn(), reservation.getQuantity(), Integer::sum));
+        inventoryBuffer.drain(released.keySet());
+        reservationRepository.deleteAllInBatch(lapsed);
+        jdbcTemplate.batchUpdate(RELEASE_SQL, released.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList());
+        for (BookEntity bookEntity : bookRepository.findByIsbnIn(released.keySet())) {
+            inventoryCounters.invalidate(bookEntity.getIsbn());
+            eventPublisher.publishEvent(new BookChangedEvent(ChangeType.RELEASED, bookEntity.getIsbn(), bookMapper.toDTO(bookEntity)));
+        }
+        expired.increment(released.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    private BookDTO publish(ChangeType type, String isbn) {
+        BookDTO bookDTO = bookMapper.toDTO(bookRepository.findByIsbn(isbn).orElseThrow(() -> ResourceNotFound.ISBN_NOT_FOUND));
+        eventPublisher.publishEvent(new BookChangedEvent(type, isbn, bookDTO));
+        return bookDTO;
+    }
+}
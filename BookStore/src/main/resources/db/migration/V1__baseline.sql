@@ -0,0 +1,17 @@
+-- The schema as ddl-auto=update left it. Existing databases are baselined at
+-- this version and start migrating from V2.
+
+create table book_entity (
+    id bigint not null auto_increment,
+    name varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    publisher varchar(255),
+    security_amount double,
+    price double,
+    total_quantity integer,
+    available_quantity integer,
+    rented_quantity integer,
+    primary key (id),
+    constraint uk_book_entity_isbn unique (isbn)
+);
@@ -0,0 +1,19 @@
+-- Tables added after the move to Flyway. The held-copies subquery in the total
+-- derivation and the inventory verifier reads only isbn and quantity from
+-- book_reservation, so its index covers both; quantity never changes after a
+-- hold is taken, so the wider index costs nothing on the hot paths.
+create table book_reservation (
+    id varchar(255) not null,
+    isbn varchar(255),
+    quantity integer,
+    expires_at bigint,
+    primary key (id)
+);
+
+create index idx_book_reservation_isbn_quantity on book_reservation (isbn, quantity);
+
+create table inventory_checkpoint (
+    node_id varchar(255) not null,
+    generation bigint,
+    primary key (node_id)
+);
@@ -0,0 +1,17 @@
+-- Written for MySQL, the production database; tests run it on H2 in MySQL
+-- mode. ALTER TABLE ... MODIFY is MySQL syntax, so another database needs its
+-- own version of this file (for example under db/migration/{vendor}).
+
+-- Name lookups get their own index.
+create index idx_book_entity_name on book_entity (name);
+
+-- The counters are only ever changed by relative updates such as
+-- available_quantity = available_quantity - 1, which a NULL would swallow.
+update book_entity set total_quantity = coalesce(total_quantity, 0),
+                       available_quantity = coalesce(available_quantity, 0),
+                       rented_quantity = coalesce(rented_quantity, 0)
+ where total_quantity is null or available_quantity is null or rented_quantity is null;
+
+alter table book_entity modify total_quantity integer not null default 0;
+alter table book_entity modify available_quantity integer not null default 0;
+alter table book_entity modify rented_quantity integer not null default 0;
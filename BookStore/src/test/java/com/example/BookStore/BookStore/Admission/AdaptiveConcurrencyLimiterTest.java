@@ -0,0 +1,58 @@
+package com.example.BookStore.BookStore.Admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 6, Duration.ofMillis(100), 0.5);
+
+    @Test
+    public void requestsOverTheLimitAreRefused() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.release(FAST);
+        assertEquals(3, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void slowRequestsShrinkTheLimitDownToTheMinimum() {
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void fastRequestsGrowTheLimitOnlyWhileItIsUsed() {
+        limiter.tryAcquire();
+        limiter.release(FAST);
+        assertEquals(4, limiter.getLimit());
+
+        for (int round = 0; round < 5; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(FAST);
+            }
+        }
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.BookStore.BookStore.Admission;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against the shipped application.properties, with only the datasource
+ * pointed at the in-memory test database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "file:src/main/resources/application.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:Book_Store;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+public class AdmissionDefaultsTest {
+    private static final String HOT_ISBN = "9780000000001";
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    public void admissionControlShipsOff() {
+        assertTrue(applicationContext.getBeansOfType(AdmissionInterceptor.class).isEmpty());
+    }
+
+    @Nested
+    @TestPropertySource(properties = "bookstore.admission.enabled=true")
+    public class WhenEnabled {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private BookService bookService;
+
+        @Autowired
+        private BookRepository bookRepository;
+
+        @AfterEach
+        public void tearDown() {
+            bookRepository.deleteAll();
+        }
+
+        @Test
+        public void theShippedRatesLeaveReadsAloneAndAllowABusyTitle() throws Exception {
+            bookService.addBook(new BookDTO("Hot", "Author", HOT_ISBN, "Publisher", 10.0, 5.0, 10, 10, 0));
+
+            for (int i = 0; i < 100; i++) {
+                mockMvc.perform(put("/book/rentBook/{isbn}", HOT_ISBN)).andExpect(status().isOk());
+                mockMvc.perform(put("/book/returnBook/{isbn}", HOT_ISBN)).andExpect(status().isOk());
+            }
+            for (int i = 0; i < 200; i++) {
+                mockMvc.perform(get("/book/isbn/{isbn}", HOT_ISBN)).andExpect(status().isOk());
+            }
+        }
+    }
+}
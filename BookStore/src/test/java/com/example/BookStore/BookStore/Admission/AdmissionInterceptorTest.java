@@ -0,0 +1,106 @@
+package com.example.BookStore.BookStore.Admission;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "bookstore.admission.enabled=true",
+        "bookstore.admission.read.rate=0.01",
+        "bookstore.admission.read.burst=3",
+        "bookstore.admission.isbn.rate=0.01",
+        "bookstore.admission.isbn.burst=2",
+        "bookstore.admission.concurrency.initial-limit=1",
+        "bookstore.admission.concurrency.min-limit=1"
+})
+@AutoConfigureMockMvc
+public class AdmissionInterceptorTest {
+    private static final String HOT_ISBN = "9780000000001";
+    private static final String OTHER_ISBN = "9780000000002";
+    private static final String OVERLOADED_ISBN = "9780000000003";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("bookstore.admission.rejected").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    public void aHotIsbnIsLimitedWithoutAffectingOthers() throws Exception {
+        bookService.addBook(new BookDTO("Hot", "Author", HOT_ISBN, "Publisher", 10.0, 5.0, 10, 10, 0));
+        bookService.addBook(new BookDTO("Other", "Author", OTHER_ISBN, "Publisher", 10.0, 5.0, 10, 10, 0));
+        double before = rejected("isbn_rate");
+
+        mockMvc.perform(put("/book/rentBook/{isbn}", HOT_ISBN)).andExpect(status().isOk());
+        mockMvc.perform(put("/book/returnBook/{isbn}", HOT_ISBN)).andExpect(status().isOk());
+        String retryAfter = mockMvc.perform(put("/book/rentBook/{isbn}", HOT_ISBN))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertTrue(Long.parseLong(retryAfter) >= 1);
+
+        mockMvc.perform(put("/book/rentBook/{isbn}", OTHER_ISBN)).andExpect(status().isOk());
+        assertEquals(before + 1, rejected("isbn_rate"));
+    }
+
+    @Test
+    public void eachEndpointHasItsOwnBucket() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/book/name/{bookName}", "Nothing")).andExpect(status().isNotFound());
+        }
+        mockMvc.perform(get("/book/name/{bookName}", "Nothing"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        mockMvc.perform(get("/book/search").param("q", "Nothing")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void writesBeyondTheConcurrencyLimitAreShedWith503() throws Exception {
+        bookService.addBook(new BookDTO("Busy", "Author", OVERLOADED_ISBN, "Publisher", 10.0, 5.0, 10, 10, 0));
+
+        assertTrue(limiter.tryAcquire());
+        try {
+            mockMvc.perform(put("/book/rentBook/{isbn}", OVERLOADED_ISBN))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        } finally {
+            limiter.release(0);
+        }
+
+        mockMvc.perform(put("/book/rentBook/{isbn}", OVERLOADED_ISBN)).andExpect(status().isOk());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
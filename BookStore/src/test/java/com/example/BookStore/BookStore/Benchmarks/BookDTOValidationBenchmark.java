@@ -0,0 +1,54 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookDTOValidationBenchmark {
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private BookDTO validBook;
+    private BookDTO invalidBook;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validBook = new BookDTO("Valid Book Name", "Valid Author", "1234567890123", "Valid Publisher", 50.0, 12.0, 100, 70, 30);
+        invalidBook = new BookDTO("", "", "12345", "", -1.0, 0.0, -1, -1, -1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookDTO>> validBook() {
+        return validator.validate(validBook);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookDTO>> invalidBook() {
+        return validator.validate(invalidBook);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookDTOValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
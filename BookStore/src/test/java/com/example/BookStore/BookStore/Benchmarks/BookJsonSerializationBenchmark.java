@@ -0,0 +1,56 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookJsonSerializationBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int books;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<BookDTO> bookDTOs;
+
+    @Setup
+    public void setUp() {
+        bookDTOs = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            bookDTOs.add(new BookDTO("Book " + i, "Author", String.format("%013d", i), "Publisher", 50.0, 12.5, 10, 6, 4));
+        }
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(bookDTOs);
+    }
+
+    @Benchmark
+    public void ndjsonStream() throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            for (BookDTO bookDTO : bookDTOs) {
+                generator.writeObject(bookDTO);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookJsonSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
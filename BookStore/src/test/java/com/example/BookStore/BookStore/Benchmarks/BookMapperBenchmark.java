@@ -0,0 +1,64 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookMapperBenchmark {
+    @Param({"1", "100", "10000"})
+    private int books;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final BookMapper bookMapper = new BookMapper();
+    private List<BookEntity> bookEntities;
+    private BookDTO bookDTO;
+
+    @Setup
+    public void setUp() {
+        bookEntities = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            bookEntities.add(new BookEntity((long) i, "Book " + i, "Author", String.format("%013d", i), "Publisher", 50.0, 12.5, 10, 6, 4));
+        }
+        bookDTO = bookMapper.toDTO(bookEntities.get(0));
+    }
+
+    @Benchmark
+    public List<BookDTO> modelMapperList() {
+        return bookEntities.stream().map(bookEntity -> modelMapper.map(bookEntity, BookDTO.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookDTO> bookMapperList() {
+        return bookMapper.toDTOList(bookEntities);
+    }
+
+    @Benchmark
+    public BookEntity modelMapperToEntity() {
+        return modelMapper.map(bookDTO, BookEntity.class);
+    }
+
+    @Benchmark
+    public BookEntity bookMapperToEntity() {
+        return bookMapper.toEntity(bookDTO);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookMapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.BookStore.BookStore.Benchmarks.BookServiceBenchmark.isbn;
+import static com.example.BookStore.BookStore.Benchmarks.BookServiceBenchmark.start;
+
+/**
+ * Full-entity loads mapped to DTOs against constructor-expression queries
+ * that build the DTOs directly. Run with {@code -prof gc} to compare
+ * allocation per operation; main() adds it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookReadProjectionBenchmark {
+    private static final int BOOKS = 2_000;
+    private static final int SAME_NAME = 20;
+
+    private ConfigurableApplicationContext context;
+    private BookRepository bookRepository;
+    private BookMapper bookMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start();
+        bookRepository = context.getBean(BookRepository.class);
+        bookMapper = context.getBean(BookMapper.class);
+        BookService bookService = context.getBean(BookService.class);
+        for (int i = 0; i < BOOKS; i++) {
+            bookService.addBook(new BookDTO("Book " + (i % (BOOKS / SAME_NAME)), "Author " + (i % 50), isbn(i), "Publisher", 10.0, 5.0, 10, 10, 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static String name() {
+        return "Book " + ThreadLocalRandom.current().nextInt(BOOKS / SAME_NAME);
+    }
+
+    @Benchmark
+    public List<BookDTO> byNameEntities() {
+        return bookMapper.toDTOList(bookRepository.findByName(name()));
+    }
+
+    @Benchmark
+    public List<BookDTO> byNameProjection() {
+        return bookRepository.findBookDTOsByName(name());
+    }
+
+    @Benchmark
+    public List<BookDTO> allEntities() {
+        return bookMapper.toDTOList(bookRepository.findAll());
+    }
+
+    @Benchmark
+    public List<BookDTO> allProjection() {
+        return bookRepository.findAllBookDTOs();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookReadProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
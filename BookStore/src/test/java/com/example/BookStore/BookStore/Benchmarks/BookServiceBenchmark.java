@@ -0,0 +1,92 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.BookStoreApplication;
+import com.example.BookStore.BookStore.Caches.BookIsbnCache;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+    private static final int BOOKS = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BookIsbnCache bookIsbnCache;
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BookStoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+
+    static String isbn(int i) {
+        return String.format("978%010d", i);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start();
+        bookService = context.getBean(BookService.class);
+        bookIsbnCache = context.getBean(BookIsbnCache.class);
+        for (int i = 0; i < BOOKS; i++) {
+            bookService.addBook(new BookDTO("Book " + i, "Author " + (i % 50), isbn(i), "Publisher", 10.0, 5.0, 1_000_000, 1_000_000, 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDTO getBookByIsbnCached() {
+        return bookService.getBookByIsbn(isbn(ThreadLocalRandom.current().nextInt(16)));
+    }
+
+    @Benchmark
+    public BookDTO getBookByIsbnUncached() {
+        String isbn = isbn(ThreadLocalRandom.current().nextInt(BOOKS));
+        bookIsbnCache.invalidate(isbn);
+        return bookService.getBookByIsbn(isbn);
+    }
+
+    @Benchmark
+    public List<BookDTO> getBooksByName() {
+        return bookService.getBooksByName("Book " + ThreadLocalRandom.current().nextInt(BOOKS));
+    }
+
+    @Benchmark
+    public BookPageDTO getBooksPage() {
+        return bookService.getBooksPage((long) ThreadLocalRandom.current().nextInt(BOOKS - 100), 100);
+    }
+
+    @Benchmark
+    public BookDTO rentAndReturn() {
+        String isbn = isbn(ThreadLocalRandom.current().nextInt(BOOKS));
+        bookService.rentBook(isbn);
+        return bookService.returnBook(isbn);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.BookStore.BookStore.Benchmarks.BookServiceBenchmark.isbn;
+import static com.example.BookStore.BookStore.Benchmarks.BookServiceBenchmark.start;
+
+/**
+ * Write-path latency. The {@code checkThen*} benchmarks replay the old
+ * check-then-act sequences straight against the repository so the extra
+ * round trips show up next to the single-statement service paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookWriteBenchmark {
+    private static final int BOOKS = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private BookRepository bookRepository;
+    private BookMapper bookMapper;
+    private final AtomicInteger nextIsbn = new AtomicInteger(BOOKS);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF");
+        bookService = context.getBean(BookService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        bookMapper = context.getBean(BookMapper.class);
+        for (int i = 0; i < BOOKS; i++) {
+            bookService.addBook(book(isbn(i)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static BookDTO book(String isbn) {
+        return new BookDTO("Book " + isbn, "Author", isbn, "Publisher", 10.0, 5.0, 10, 10, 0);
+    }
+
+    @Benchmark
+    public BookDTO addAndDelete() {
+        String isbn = isbn(nextIsbn.getAndIncrement());
+        bookService.addBook(book(isbn));
+        return bookService.deleteBookByIsbn(isbn);
+    }
+
+    @Benchmark
+    public BookEntity checkThenAddAndDelete() {
+        String isbn = isbn(nextIsbn.getAndIncrement());
+        if (bookRepository.existsByIsbn(isbn)) {
+            throw new IllegalStateException(isbn);
+        }
+        bookRepository.save(bookMapper.toEntity(book(isbn)));
+        BookEntity found = bookRepository.findByIsbn(isbn).orElseThrow();
+        bookRepository.deleteByIsbn(isbn);
+        return found;
+    }
+
+    @Benchmark
+    public BookDTO update() {
+        return bookService.updateBook(book(isbn(ThreadLocalRandom.current().nextInt(BOOKS))));
+    }
+
+    @Benchmark
+    public BookEntity checkThenUpdate() {
+        BookDTO bookDTO = book(isbn(ThreadLocalRandom.current().nextInt(BOOKS)));
+        if (!bookRepository.existsByIsbn(bookDTO.getIsbn())) {
+            throw new IllegalStateException(bookDTO.getIsbn());
+        }
+        BookEntity existing = bookRepository.findByIsbn(bookDTO.getIsbn()).orElseThrow();
+        BookEntity bookEntity = bookMapper.toEntity(bookDTO);
+        bookEntity.setId(existing.getId());
+        return bookRepository.save(bookEntity);
+    }
+
+    @Benchmark
+    public boolean addDuplicate() {
+        try {
+            bookService.addBook(book(isbn(ThreadLocalRandom.current().nextInt(BOOKS))));
+            return false;
+        } catch (ResourceAlreadyExist e) {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookWriteBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.BookStore.BookStore.Benchmarks.BookServiceBenchmark.isbn;
+import static com.example.BookStore.BookStore.Benchmarks.BookServiceBenchmark.start;
+
+/**
+ * Read paths with and without the catalog snapshot. Run with {@code -prof gc}
+ * to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSnapshotBenchmark {
+    private static final int BOOKS = 2_000;
+
+    @Param({"true", "false"})
+    public boolean snapshot;
+
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start("bookstore.catalog.snapshot.enabled=" + snapshot, "bookstore.cache.isbn.maximum-size=0");
+        bookService = context.getBean(BookService.class);
+        for (int i = 0; i < BOOKS; i++) {
+            bookService.addBook(new BookDTO("Book " + i, "Author " + (i % 50), isbn(i), "Publisher " + (i % 10), 10.0, 5.0, 10, 10, 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDTO getBookByIsbn() {
+        return bookService.getBookByIsbn(isbn(ThreadLocalRandom.current().nextInt(BOOKS)));
+    }
+
+    @Benchmark
+    public List<BookDTO> getBooksByName() {
+        return bookService.getBooksByName("Book " + ThreadLocalRandom.current().nextInt(BOOKS));
+    }
+
+    @Benchmark
+    public List<BookDTO> getAllBooks() {
+        return bookService.getAllBooks();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CatalogSnapshotBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.Advices.APIError;
+import com.example.BookStore.BookStore.Advices.ErrorResponses;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of one "ISBN not found" miss from throw to response body. The throw
+ * happens {@code depth} frames below the catch to stand in for the servlet,
+ * proxy and repository frames a real request unwinds through. {@code before}
+ * is a stack-filling exception plus a fresh APIError serialisation; the other
+ * two use the stackless exceptions with a per-request message and the shared
+ * instance with its prebuilt response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+    @Param({"20", "150"})
+    private int depth;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ErrorResponses errorResponses = new ErrorResponses(objectMapper);
+
+    private static final class StackTracedNotFound extends RuntimeException {
+        StackTracedNotFound(String message) {
+            super(message);
+        }
+    }
+
+    private static RuntimeException throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        return throwAt(depth - 1, exception);
+    }
+
+    @Benchmark
+    public byte[] before() throws JsonProcessingException {
+        try {
+            throwAt(depth, () -> new StackTracedNotFound("ISBN not found!!"));
+            return null;
+        } catch (StackTracedNotFound e) {
+            return objectMapper.writeValueAsBytes(APIError.builder()
+                    .status(HttpStatus.NOT_FOUND)
+                    .errMsg(e.getMessage())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> stackless() {
+        try {
+            throwAt(depth, () -> new ResourceNotFound("ISBN not found!!"));
+            return null;
+        } catch (ResourceNotFound e) {
+            return errorResponses.of(HttpStatus.NOT_FOUND, e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> sharedAndPrebuilt() {
+        try {
+            throwAt(depth, () -> ResourceNotFound.ISBN_NOT_FOUND);
+            return null;
+        } catch (ResourceNotFound e) {
+            return errorResponses.of(HttpStatus.NOT_FOUND, e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ErrorPathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+/**
+ * Runs the {@link ThreadModeLoadRunner} rent/return load against the servlet
+ * stack and then the reactive stack. Defaults to 1000 concurrent clients.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.BookStore.BookStore.Benchmarks.ReactiveLoadRunner
+ */
+public class ReactiveLoadRunner {
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("load.clients") == null) {
+            System.setProperty("load.clients", "1000");
+        }
+        ThreadModeLoadRunner.run("servlet", "spring.main.web-application-type=servlet");
+        ThreadModeLoadRunner.run("reactive", "spring.main.web-application-type=reactive");
+    }
+}
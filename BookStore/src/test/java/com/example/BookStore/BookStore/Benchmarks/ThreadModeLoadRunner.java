@@ -0,0 +1,89 @@
+package com.example.BookStore.BookStore.Benchmarks;
+
+import com.example.BookStore.BookStore.BookStoreApplication;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives rent/return bursts over HTTP against the platform-thread and the
+ * virtual-thread request mode and prints throughput and latency for each.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.BookStore.BookStore.Benchmarks.ThreadModeLoadRunner
+ */
+public class ThreadModeLoadRunner {
+    private static final int BOOKS = 50;
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+
+    public static void main(String[] args) throws Exception {
+        run("platform", "spring.threads.virtual.enabled=false");
+        if (Runtime.version().feature() >= 21) {
+            run("virtual", "spring.threads.virtual.enabled=true");
+        } else {
+            System.out.println("virtual: skipped, needs a Java 21+ runtime (running " + Runtime.version() + ")");
+        }
+    }
+
+    static void run(String mode, String... properties) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BookStoreApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .properties(properties)
+                .run()) {
+            BookService bookService = context.getBean(BookService.class);
+            for (int i = 0; i < BOOKS; i++) {
+                bookService.addBook(new BookDTO("Book " + i, "Author", BookServiceBenchmark.isbn(i), "Publisher", 10.0, 5.0, 1_000_000, 1_000_000, 0));
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ExecutorService httpExecutor = Executors.newFixedThreadPool(32);
+            HttpClient client = HttpClient.newBuilder().executor(httpExecutor).build();
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            long deadline = System.nanoTime() + DURATION.toNanos();
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(clients.submit(() -> {
+                    long[] latencies = new long[1 << 16];
+                    int count = 0;
+                    while (System.nanoTime() < deadline && count < latencies.length) {
+                        String isbn = BookServiceBenchmark.isbn(ThreadLocalRandom.current().nextInt(BOOKS));
+                        String path = count % 2 == 0 ? "/book/rentBook/" : "/book/returnBook/";
+                        long start = System.nanoTime();
+                        client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path + isbn))
+                                .PUT(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+            List<Long> all = new ArrayList<>();
+            for (Future<long[]> result : results) {
+                for (long latency : result.get()) {
+                    all.add(latency);
+                }
+            }
+            clients.shutdown();
+            clients.awaitTermination(10, TimeUnit.SECONDS);
+            httpExecutor.shutdown();
+            all.sort(null);
+            System.out.printf("%s: %d requests, %.0f req/s, p50 %.2f ms, p99 %.2f ms%n", mode, all.size(),
+                    all.size() / (double) DURATION.toSeconds(),
+                    all.get(all.size() / 2) / 1e6, all.get((int) (all.size() * 0.99)) / 1e6);
+        }
+    }
+}
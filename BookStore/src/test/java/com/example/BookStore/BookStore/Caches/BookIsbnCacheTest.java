@@ -0,0 +1,65 @@
+package com.example.BookStore.BookStore.Caches;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookIsbnCacheTest {
+    private static final String ISBN = "1234567890123";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookIsbnCache bookIsbnCache = new BookIsbnCache(100, Duration.ofMinutes(1), meterRegistry, new BookMapper());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private BookDTO load(String isbn) {
+        loads.incrementAndGet();
+        return new BookDTO("Name", "Author", isbn, "Publisher", 10.0, 5.0, 3, 2, 1);
+    }
+
+    @Test
+    void secondLookupIsAHit() {
+        bookIsbnCache.get(ISBN, this::load);
+        bookIsbnCache.get(ISBN, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, bookIsbnCache.stats().hitCount());
+        assertEquals(1, bookIsbnCache.stats().missCount());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "book.isbn").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void returnedSnapshotsAreIsolatedFromTheCache() {
+        BookDTO first = bookIsbnCache.get(ISBN, this::load);
+        first.setAvailableQuantity(99);
+
+        assertEquals(2, bookIsbnCache.get(ISBN, this::load).getAvailableQuantity());
+    }
+
+    @Test
+    void changeEventEvictsTheIsbn() {
+        bookIsbnCache.get(ISBN, this::load);
+
+        bookIsbnCache.onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.RENTED, ISBN, null));
+        bookIsbnCache.get(ISBN, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void sizeBoundEvictsEntries() {
+        BookIsbnCache small = new BookIsbnCache(1, Duration.ofMinutes(1), meterRegistry, new BookMapper());
+        for (int i = 0; i < 50; i++) {
+            small.get(String.format("%013d", i), this::load);
+        }
+        small.cleanUp();
+
+        assertTrue(small.stats().evictionCount() > 0);
+    }
+}
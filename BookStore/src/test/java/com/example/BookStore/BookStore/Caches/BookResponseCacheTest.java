@@ -0,0 +1,120 @@
+package com.example.BookStore.BookStore.Caches;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookResponseCacheTest {
+    private static final String ISBN = "1234567890123";
+
+    private final BookResponseCache bookResponseCache = new BookResponseCache(new ObjectMapper(),
+            DataSize.ofMegabytes(1), DataSize.ofBytes(100), Duration.ofMinutes(1), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private BookDTO load() {
+        loads.incrementAndGet();
+        return new BookDTO("Name", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 2, 1);
+    }
+
+    @Test
+    void responsesAreEncodedOnce() {
+        CachedJson first = bookResponseCache.isbn(ISBN, this::load);
+        CachedJson second = bookResponseCache.isbn(ISBN, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertTrue(new String(first.json()).contains("\"isbn\":\"" + ISBN + "\""));
+    }
+
+    @Test
+    void responsesExpireEvenWithoutAnEviction() throws InterruptedException {
+        BookResponseCache shortLived = new BookResponseCache(new ObjectMapper(), DataSize.ofMegabytes(1),
+                DataSize.ofBytes(100), Duration.ofMillis(50), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        shortLived.isbn(ISBN, this::load);
+        Thread.sleep(100);
+        shortLived.isbn(ISBN, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missingBooksAreNotCached() {
+        assertNull(bookResponseCache.isbn(ISBN, () -> null));
+        assertNotNull(bookResponseCache.isbn(ISBN, this::load));
+    }
+
+    @Test
+    void changeEventEvictsTheIsbnAndEveryListing() {
+        bookResponseCache.isbn(ISBN, this::load);
+        bookResponseCache.list("all", () -> List.of(load()));
+        bookResponseCache.isbn("9999999999999", this::load);
+
+        bookResponseCache.onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.RENTED, ISBN, null));
+        bookResponseCache.isbn(ISBN, this::load);
+        bookResponseCache.list("all", () -> List.of(load()));
+        bookResponseCache.isbn("9999999999999", this::load);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void changeEventEvictsOnlyThePagesShowingTheBookAndTheLastPage() {
+        BookPageDTO first = new BookPageDTO(List.of(load()), 1L);
+        BookPageDTO second = new BookPageDTO(List.of(new BookDTO("Other", "Author", "9999999999999", "Publisher", 10.0, 5.0, 3, 2, 1)), 2L);
+        BookPageDTO last = new BookPageDTO(List.of(), null);
+        loads.set(0);
+
+        bookResponseCache.list("page:null:1", () -> { loads.incrementAndGet(); return first; });
+        bookResponseCache.list("page:1:1", () -> { loads.incrementAndGet(); return second; });
+        bookResponseCache.list("page:2:1", () -> { loads.incrementAndGet(); return last; });
+
+        bookResponseCache.onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.RENTED, ISBN, null));
+        bookResponseCache.list("page:null:1", () -> { loads.incrementAndGet(); return first; });
+        bookResponseCache.list("page:1:1", () -> { loads.incrementAndGet(); return second; });
+        bookResponseCache.list("page:2:1", () -> { loads.incrementAndGet(); return last; });
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void aChangeDuringALoadDoesNotLeaveTheListingCached() {
+        bookResponseCache.list("all", () -> {
+            bookResponseCache.onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.RENTED, ISBN, null));
+            return List.of(load());
+        });
+        bookResponseCache.list("all", () -> List.of(load()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onlyLargeBodiesAreGzipped() {
+        assertFalse(bookResponseCache.list("small", () -> List.of()).hasGzip());
+        CachedJson large = bookResponseCache.list("large", () -> List.of(load(), load(), load()));
+
+        assertTrue(large.hasGzip());
+        assertNotEquals(large.etag(false), large.etag(true));
+    }
+
+    @Test
+    void ifNoneMatchAcceptsListsWildcardsAndWeakTags() {
+        String etag = "\"0abc\"";
+
+        assertTrue(CachedJson.matches("\"x\", \"0abc\"", etag));
+        assertTrue(CachedJson.matches("W/\"0abc\"", etag));
+        assertTrue(CachedJson.matches("*", etag));
+        assertFalse(CachedJson.matches("\"0abd\"", etag));
+        assertFalse(CachedJson.matches(null, etag));
+    }
+}
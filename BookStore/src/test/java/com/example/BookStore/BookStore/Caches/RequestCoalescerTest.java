@@ -0,0 +1,137 @@
+package com.example.BookStore.BookStore.Caches;
+
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescerTest {
+    private static final int WAITERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger queries = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Supplier<List<String>> blockingQuery(Supplier<List<String>> result) {
+        return () -> {
+            queries.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return result.get();
+        };
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("bookstore.reads.coalesced").tag("kind", "isbn").counter().count();
+    }
+
+    private void awaitWaiters(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("bookstore.reads.coalesced").counter() == null || coalesced() < waiters) {
+            assertTrue(System.nanoTime() < deadline, "waiters never joined the flight");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void overlappingCallsShareOneQueryAndGetTheirOwnCopy() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+        Supplier<List<String>> query = blockingQuery(() -> new ArrayList<>(List.of("book")));
+        List<Future<List<String>>> results = new ArrayList<>();
+        results.add(executor.submit(() -> coalescer.execute("isbn", "1", query, ArrayList::new)));
+        started.await();
+        for (int i = 0; i < WAITERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute("isbn", "1", query, ArrayList::new)));
+        }
+        awaitWaiters(WAITERS);
+        release.countDown();
+
+        List<String> first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<List<String>> result : results.subList(1, results.size())) {
+            List<String> shared = result.get(5, TimeUnit.SECONDS);
+            assertEquals(first, shared);
+            assertNotSame(first, shared);
+        }
+        assertEquals(1, queries.get());
+        assertEquals(List.of("book"), coalescer.execute("isbn", "1", () -> List.of("book"), ArrayList::new));
+    }
+
+    @Test
+    void errorsAreSharedWithWaiters() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+        Supplier<List<String>> query = blockingQuery(() -> {
+            throw ResourceNotFound.NO_BOOK_OF_ISBN;
+        });
+        Future<List<String>> leader = executor.submit(() -> coalescer.execute("isbn", "1", query, ArrayList::new));
+        started.await();
+        Future<List<String>> waiter = executor.submit(() -> coalescer.execute("isbn", "1", query, ArrayList::new));
+        awaitWaiters(1);
+        release.countDown();
+
+        for (Future<List<String>> future : List.of(leader, waiter)) {
+            Exception e = assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertSame(ResourceNotFound.NO_BOOK_OF_ISBN, e.getCause());
+        }
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void waitIsBoundedThenTheWaiterQueriesItself() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofMillis(50), meterRegistry);
+        executor.submit(() -> coalescer.execute("isbn", "1", blockingQuery(() -> List.of("slow")), ArrayList::new));
+        started.await();
+
+        assertEquals(List.of("fast"), coalescer.execute("isbn", "1", () -> List.of("fast"), ArrayList::new));
+        assertEquals(1.0, meterRegistry.get("bookstore.reads.coalesced.timeouts").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void waitersRetryWhenTheLeaderIsInterrupted() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+        Future<List<String>> leader = executor.submit(() -> coalescer.execute("isbn", "1", blockingQuery(() -> List.of("never")), ArrayList::new));
+        started.await();
+        Future<List<String>> waiter = executor.submit(() -> coalescer.execute("isbn", "1", () -> List.of("retried"), ArrayList::new));
+        awaitWaiters(1);
+
+        leader.cancel(true);
+
+        assertEquals(List.of("retried"), waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() throws Exception {
+        RequestCoalescer coalescer = new RequestCoalescer(true, Duration.ofSeconds(5), meterRegistry);
+        executor.submit(() -> coalescer.execute("isbn", "1", blockingQuery(() -> List.of("one")), ArrayList::new));
+        started.await();
+
+        assertEquals(List.of("two"), coalescer.execute("isbn", "2", () -> List.of("two"), ArrayList::new));
+        assertEquals(List.of("name"), coalescer.execute("name", "1", () -> List.of("name"), ArrayList::new));
+        release.countDown();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.BookStore.BookStore.Catalog;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+
+    private static BookDTO book(String isbn, String name, int available) {
+        return new BookDTO(name, "Author", isbn, "Publisher", 10.0, 5.0, available, available, 0);
+    }
+
+    @Test
+    void booksRoundTripThroughTheColumns() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.upsert(new BookDTO("Book", null, "0012345678901", "Publisher", null, 5.0, 3, 2, 1));
+        snapshot.upsert(book("legacy-1", "Legacy", 1));
+
+        BookDTO book = snapshot.get("0012345678901");
+        assertEquals("Book", book.getName());
+        assertNull(book.getAuthor());
+        assertEquals("0012345678901", book.getIsbn());
+        assertNull(book.getSecurityAmount());
+        assertEquals(5.0, book.getPrice());
+        assertEquals(2, book.getAvailableQuantity());
+        assertEquals(1, book.getRentedQuantity());
+        assertEquals("legacy-1", snapshot.get("legacy-1").getIsbn());
+        assertNull(snapshot.get("9780000000000"));
+    }
+
+    @Test
+    void upsertUpdatesInPlaceAndRemovedBooksCanComeBack() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.upsert(book("9780000000001", "First", 3));
+        snapshot.upsert(book("9780000000002", "Second", 3));
+        snapshot.upsert(book("9780000000001", "First", 1));
+
+        assertEquals(1, snapshot.get("9780000000001").getAvailableQuantity());
+        assertEquals(2, snapshot.size());
+
+        snapshot.remove("9780000000001");
+        assertNull(snapshot.get("9780000000001"));
+        assertEquals(List.of("9780000000002"), snapshot.findAll().stream().map(BookDTO::getIsbn).toList());
+
+        snapshot.upsert(book("9780000000001", "First", 5));
+        assertEquals(List.of("9780000000001", "9780000000002"), snapshot.findAll().stream().map(BookDTO::getIsbn).toList());
+    }
+
+    @Test
+    void findByNameUsesTheDictionary() {
+        CatalogSnapshot snapshot = new CatalogSnapshot();
+        snapshot.upsert(book("9780000000001", "Dune", 3));
+        snapshot.upsert(book("9780000000002", "Dune", 3));
+        snapshot.upsert(book("9780000000003", "Emma", 3));
+
+        assertEquals(2, snapshot.findByName("Dune").size());
+        assertTrue(snapshot.findByName("dune").isEmpty());
+        assertTrue(snapshot.findByName("Nothing").isEmpty());
+    }
+
+    @Test
+    void growsPastItsInitialCapacityWhileReadersRun() throws Exception {
+        CatalogSnapshot snapshot = new CatalogSnapshot(16);
+        snapshot.upsert(book(String.format("978%010d", 0), "Book 0", 1));
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        Future<?> reading = readers.submit(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                assertEquals("Book 0", snapshot.get(String.format("978%010d", 0)).getName());
+            }
+        });
+
+        for (int i = 1; i < 5_000; i++) {
+            snapshot.upsert(book(String.format("978%010d", i), "Book " + i, i));
+        }
+        reading.get();
+        readers.shutdown();
+
+        assertEquals(5_000, snapshot.size());
+        assertEquals(4_999, snapshot.get(String.format("978%010d", 4_999)).getAvailableQuantity());
+    }
+}
@@ -1,27 +1,60 @@
 package com.example.BookStore.BookStore.Controllers;
 
+import com.example.BookStore.BookStore.Caches.BookResponseCache;
 import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.DTO.BookSearchResultDTO;
+import com.example.BookStore.BookStore.DTO.BulkImportReport;
+import com.example.BookStore.BookStore.DTO.BulkImportRowResult;
+import com.example.BookStore.BookStore.DTO.ReservationDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
 import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Services.BookImportService;
+import com.example.BookStore.BookStore.Services.BookSearchService;
 import com.example.BookStore.BookStore.Services.BookService;
+import com.example.BookStore.BookStore.Services.ReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @WebMvcTest(BookController.class)
+@Import(BookResponseCache.class)
 public class BookControllerTest {
 
     @Autowired
@@ -30,9 +63,26 @@ public class BookControllerTest {
     @MockitoBean
     private BookService bookService;
 
+    @MockitoBean
+    private BookImportService bookImportService;
+
+    @MockitoBean
+    private ReservationService reservationService;
+
+    @MockitoBean
+    private BookSearchService bookSearchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BookResponseCache bookResponseCache;
+
+    @BeforeEach
+    public void setUp() {
+        bookResponseCache.invalidateAll();
+    }
+
     @Test
     public void testAddBook() throws Exception {
         BookDTO BookDTO = new BookDTO("New Book", "New Author", "1234567890123", "New Publisher",200.99, 30.0, 12, 6, 3);
@@ -54,6 +104,37 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$.rentedQuantity").value(3));
     }
 
+    @Test
+    public void testImportBooksCsv() throws Exception {
+        BulkImportReport report = new BulkImportReport(BulkImportReport.Status.COMPLETED, null, 1, 1, 0, List.of(new BulkImportRowResult(1, "1234567890123", BulkImportRowResult.Status.INSERTED, List.of())));
+
+        when(bookImportService.importBooks(any(), argThat(BookImportService.TEXT_CSV::includes), eq(false))).thenReturn(report);
+
+        mockMvc.perform(post("/book/bulk")
+                        .contentType("text/csv")
+                        .param("errorsOnly", "false")
+                        .content("name,isbn,price\nBook,1234567890123,10.0\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("INSERTED"));
+    }
+
+    @Test
+    public void testImportBooksAbortedByAParseErrorIsUnprocessable() throws Exception {
+        BulkImportReport report = new BulkImportReport(BulkImportReport.Status.ABORTED, 3L, 2, 1, 1,
+                List.of(new BulkImportRowResult(2, null, BulkImportRowResult.Status.INVALID, List.of("Unexpected character"))));
+
+        when(bookImportService.importBooks(any(), any(), eq(true))).thenReturn(report);
+
+        mockMvc.perform(post("/book/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n{broken\n"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value("ABORTED"))
+                .andExpect(jsonPath("$.abortedAtLine").value(3))
+                .andExpect(jsonPath("$.inserted").value(1));
+    }
+
     @Test
     public void testGetBookByName() throws Exception {
         BookDTO BookDTO1 = new BookDTO("Book 1", "Author 1", "12345", "Publisher",156.15, 20.0, 10, 5, 2);
@@ -78,6 +159,19 @@ public class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testSearchBooks() throws Exception {
+        BookDTO BookDTO1 = new BookDTO("The Hobbit", "Tolkien", "12345", "Publisher",156.15, 20.0, 10, 5, 2);
+
+        when(bookSearchService.search("hob", 0, 20)).thenReturn(new BookSearchResultDTO(List.of(BookDTO1), 1, 0, 20));
+
+        mockMvc.perform(get("/book/search").param("q", "hob")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits").value(1))
+                .andExpect(jsonPath("$.books[0].name").value("The Hobbit"));
+    }
+
     @Test
     public void testGetBookByIsbn() throws Exception {
         BookDTO BookDTO = new BookDTO("Book Name", "Author", "12345", "Publisher",300.19, 20.0, 10, 5, 2);
@@ -106,6 +200,46 @@ public class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testGetBookByIsbnIsCachedWithStrongEtag() throws Exception {
+        when(bookService.getBookByIsbn("12345")).thenReturn(new BookDTO("Book Name", "Author", "12345", "Publisher", 300.19, 20.0, 10, 5, 2));
+
+        String etag = mockMvc.perform(get("/book/isbn/{isbn}", "12345"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        mockMvc.perform(get("/book/isbn/{isbn}", "12345").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+        verify(bookService, times(1)).getBookByIsbn("12345");
+
+        bookResponseCache.onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.RENTED, "12345", null));
+        mockMvc.perform(get("/book/isbn/{isbn}", "12345").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(bookService, times(2)).getBookByIsbn("12345");
+    }
+
+    @Test
+    public void testGetAllBooksIsGzippedWhenAccepted() throws Exception {
+        List<BookDTO> books = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            books.add(new BookDTO("Book " + i, "Author", String.format("978%010d", i), "Publisher", 10.0, 5.0, 1, 1, 0));
+        }
+        when(bookService.getAllBooks()).thenReturn(books);
+
+        MvcResult result = mockMvc.perform(get("/book/getAllBooks").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(50, objectMapper.readTree(json).size());
+        assertTrue(result.getResponse().getHeader(HttpHeaders.ETAG).endsWith("-gzip\""));
+    }
+
     @Test
     public void testGetAllBooks() throws Exception {
         BookDTO BookDTO1 = new BookDTO("Book 1", "Author 1", "12345", "Publisher",156.15, 20.0, 10, 5, 2);
@@ -130,6 +264,45 @@ public class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testGetBooksPage() throws Exception {
+        BookDTO BookDTO1 = new BookDTO("Book 1", "Author 1", "12345", "Publisher",156.15, 20.0, 10, 5, 2);
+
+        when(bookService.getBooksPage(null, 100)).thenReturn(new BookPageDTO(List.of(BookDTO1), 42L));
+
+        mockMvc.perform(get("/book/getAllBooks/page")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].name").value("Book 1"))
+                .andExpect(jsonPath("$.nextCursor").value(42));
+    }
+
+    @Test
+    public void testStreamAllBooks() throws Exception {
+        BookDTO BookDTO1 = new BookDTO("Book 1", "Author 1", "12345", "Publisher",156.15, 20.0, 10, 5, 2);
+        BookDTO BookDTO2 = new BookDTO("Book 2", "Author 2", "67890", "Publisher",240.00, 25.0, 15, 7, 3);
+
+        doAnswer(invocation -> {
+            Consumer<BookDTO> consumer = invocation.getArgument(0);
+            consumer.accept(BookDTO1);
+            consumer.accept(BookDTO2);
+            return null;
+        }).when(bookService).streamAllBooks(any());
+
+        MvcResult result = mockMvc.perform(get("/book/getAllBooks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Book 1", objectMapper.readValue(lines[0], BookDTO.class).getName());
+        assertEquals("Book 2", objectMapper.readValue(lines[1], BookDTO.class).getName());
+    }
+
     @Test
     public void testUpdateBook() throws Exception {
         BookDTO BookDTO = new BookDTO("Updated Book", "Updated Author", "1122334455667", "Updated Publisher",400.99, 35.0, 15, 7, 4);
@@ -204,6 +377,92 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$.errMsg").value("All the Books are Rented"));
     }
 
+    @Test
+    public void testSoldOutRentBookIsAConflict() throws Exception {
+        when(bookService.rentBook(anyString())).thenThrow(ResourceNotAvailable.ALL_RENTED);
+
+        mockMvc.perform(put("/book/rentBook/{isbn}", "12345"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("CONFLICT"))
+                .andExpect(jsonPath("$.errMsg").value("All the Books are Rented"));
+    }
+
+    @Test
+    public void testReserveAndRentReservation() throws Exception {
+        when(reservationService.hold("12345", 2)).thenReturn(
+                new ReservationDTO("r-1", "12345", 2, Instant.ofEpochSecond(1_000)));
+        when(reservationService.rent("r-1")).thenReturn(
+                new BookDTO("Book Name", "Author", "12345", "Publisher", 350.0, 20.0, 10, 8, 2));
+
+        mockMvc.perform(post("/book/reserveBook/{isbn}", "12345").param("quantity", "2"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("r-1"))
+                .andExpect(jsonPath("$.quantity").value(2));
+        mockMvc.perform(put("/book/rentReservation/{id}", "r-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rentedQuantity").value(2));
+        mockMvc.perform(post("/book/reserveBook/{isbn}", "12345").param("quantity", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExpiredReservationIsNotFound() throws Exception {
+        when(reservationService.cancel(anyString())).thenThrow(ResourceNotFound.NO_RESERVATION);
+
+        mockMvc.perform(delete("/book/cancelReservation/{id}", "r-1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errMsg").value("Reservation not found or expired"));
+    }
+
+    @Test
+    public void testCartRentErrorsCarryTheIsbn() throws Exception {
+        ResourceNotAvailable soldOut = new ResourceNotAvailable("All the Books are Rented for ISBN 67890");
+        when(bookService.rentBooks(anyList())).thenThrow(soldOut);
+
+        mockMvc.perform(put("/book/rentBooks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbns\":[\"12345\",\"67890\"]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errMsg").value("All the Books are Rented for ISBN 67890"));
+        assertEquals(0, soldOut.getStackTrace().length);
+    }
+
+    @Test
+    public void testAddExistingBookIsAConflict() throws Exception {
+        BookDTO bookDTO = new BookDTO("Book Name", "Author", "1234567890123", "Publisher", 300.19, 20.0, 10, 5, 5);
+        when(bookService.addBook(any(BookDTO.class))).thenThrow(ResourceAlreadyExist.ISBN_PRESENT);
+
+        mockMvc.perform(post("/book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errMsg").value("ISBN already present."));
+    }
+
+    @Test
+    public void testRentBooks() throws Exception {
+        when(bookService.rentBooks(List.of("12345", "67890"))).thenReturn(List.of(
+                new BookDTO("Book A", "Author", "12345", "Publisher", 100.0, 20.0, 5, 4, 1),
+                new BookDTO("Book B", "Author", "67890", "Publisher", 100.0, 20.0, 5, 4, 1)
+        ));
+
+        mockMvc.perform(put("/book/rentBooks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbns\":[\"12345\",\"67890\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].isbn").value("67890"))
+                .andExpect(jsonPath("$[1].rentedQuantity").value(1));
+    }
+
+    @Test
+    public void testRentBooksEmptyCart() throws Exception {
+        mockMvc.perform(put("/book/rentBooks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"isbns\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testReturnBook() throws Exception {
         when(bookService.returnBook(anyString())).thenReturn(
@@ -254,6 +513,18 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$.errMsg").value("No Book of this ISBN found"));
     }
 
+    @Test
+    public void testDeleteBookByIsbn() throws Exception {
+        BookDTO BookDTO = new BookDTO("Book Name", "Author", "1234567890123", "Publisher",300.19, 20.0, 10, 10, 0);
+        when(bookService.deleteBookByIsbn("1234567890123")).thenReturn(BookDTO);
+
+        mockMvc.perform(delete("/book/delete/{isbn}", "1234567890123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isbn").value("1234567890123"));
+
+        verify(bookService).deleteBookByIsbn("1234567890123");
+    }
+
     @Test
     public void testAddBookInvalidInput() throws Exception {
         BookDTO invalidBookDTO = new BookDTO("", "", "", "",-42.0, -1.0, -5, -3, -2);
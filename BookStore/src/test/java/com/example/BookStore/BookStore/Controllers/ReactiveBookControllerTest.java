@@ -0,0 +1,130 @@
+package com.example.BookStore.BookStore.Controllers;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import com.example.BookStore.BookStore.Services.ReactiveBookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "bookstore.reactive.stream-page-size=2"
+})
+public class ReactiveBookControllerTest {
+    private static final String ISBN = "9780000000001";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveBookService reactiveBookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @MockitoSpyBean
+    private BookService bookService;
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    private static BookDTO book(String isbn) {
+        return new BookDTO("Reactive Title", "Author", isbn, "Publisher", 10.0, 5.0, 2, 2, 0);
+    }
+
+    @Test
+    public void servesTheBookContract() {
+        webTestClient.post().uri("/book").bodyValue(book(ISBN)).exchange()
+                .expectStatus().isCreated()
+                .expectBody().jsonPath("$.isbn").isEqualTo(ISBN);
+        webTestClient.post().uri("/book").bodyValue(book(ISBN)).exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.errMsg").isEqualTo("ISBN already present.");
+        webTestClient.post().uri("/book").bodyValue(new BookDTO("", "", "", "", -42.0, -1.0, -5, -3, -2)).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$").isArray();
+
+        webTestClient.put().uri("/book/rentBook/{isbn}", ISBN).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.availableQuantity").isEqualTo(1);
+        webTestClient.put().uri("/book/rentBooks").bodyValue("{\"isbns\":[\"" + ISBN + "\",\"" + ISBN + "\"]}")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).exchange()
+                .expectStatus().isEqualTo(409);
+        webTestClient.put().uri("/book/rentBooks").bodyValue("{\"isbns\":[]}")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).exchange()
+                .expectStatus().isBadRequest();
+
+        String etag = webTestClient.get().uri("/book/isbn/{isbn}", ISBN).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.rentedQuantity").isEqualTo(1)
+                .returnResult().getResponseHeaders().getETag();
+        webTestClient.get().uri("/book/isbn/{isbn}", ISBN).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/book/isbn/{isbn}", "9780000000999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.errMsg").isEqualTo("No Book of this ISBN found");
+
+        webTestClient.delete().uri("/book/delete/{isbn}", ISBN).exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        webTestClient.put().uri("/book/returnBook/{isbn}", ISBN).exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/book/delete/{isbn}", ISBN).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.isbn").isEqualTo(ISBN);
+    }
+
+    @Test
+    public void importsABulkBodyFromTheRequestStream() {
+        String csv = "name,author,isbn,publisher,securityAmount,price,availableQuantity,rentedQuantity\n" +
+                "One,Author,9780000000001,Publisher,10.0,5.0,2,0\n" +
+                "Two,Author,9780000000002,Publisher,10.0,-5.0,1,0\n";
+
+        webTestClient.post().uri("/book/bulk").header(HttpHeaders.CONTENT_TYPE, "text/csv").bodyValue(csv).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(2)
+                .jsonPath("$.inserted").isEqualTo(1);
+    }
+
+    @Test
+    public void streamFetchesPagesOnlyAsTheSubscriberAsks() {
+        for (int i = 1; i <= 5; i++) {
+            bookService.addBook(book(String.format("978000000000%d", i)));
+        }
+
+        StepVerifier.create(reactiveBookService.streamAllBooks(), 1)
+                .expectNextCount(1)
+                .then(() -> verify(bookService, times(1)).getBooksPage(any(), anyInt()))
+                .thenRequest(2)
+                .expectNextCount(2)
+                .then(() -> verify(bookService, times(2)).getBooksPage(any(), anyInt()))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(2)
+                .verifyComplete();
+
+        List<BookDTO> streamed = webTestClient.get().uri("/book/getAllBooks/stream")
+                .accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .returnResult(BookDTO.class).getResponseBody().collectList().block();
+        assertEquals(5, streamed.size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.BookStore.BookStore.DataSources;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionLimitingDataSourceTest {
+    private DataSource target;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50), meterRegistry);
+    }
+
+    @Test
+    void permitsAreHeldUntilTheConnectionIsClosed() throws SQLException {
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1.0, meterRegistry.get("bookstore.jdbc.permit.timeouts").counter().count());
+
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.availablePermits());
+        second.close();
+        assertEquals(2, dataSource.availablePermits());
+        assertEquals(3, meterRegistry.get("bookstore.jdbc.permit.wait").timer().count());
+    }
+
+    @Test
+    void callsAreForwardedToThePooledConnection() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(target.getConnection()).thenReturn(pooled);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+        }
+
+        verify(pooled).setAutoCommit(false);
+        verify(pooled).close();
+    }
+
+    @Test
+    void permitIsReturnedWhenThePoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(2, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.BookStore.BookStore.DataSources;
+
+import com.example.BookStore.BookStore.DataSources.ReplicaRoutingDataSource.Balancing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = healthy();
+        replicaA = healthy();
+        replicaB = healthy();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    private static DataSource healthy() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            return connection;
+        });
+        return dataSource;
+    }
+
+    private void route(Balancing balancing, DataSource... replicas) {
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicas), balancing,
+                Duration.ofHours(1), Duration.ofSeconds(1), meterRegistry);
+        routing.afterPropertiesSet();
+        clearInvocations(primary);
+        clearInvocations((Object[]) replicas);
+    }
+
+    private Connection readOnReplica() {
+        return ReplicaRoutingDataSource.onReplica(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    void onlyReadsThatAskForAReplicaLeaveThePrimary() throws SQLException {
+        route(Balancing.ROUND_ROBIN, replicaA);
+
+        routing.getConnection();
+        readOnReplica();
+
+        verify(primary, times(1)).getConnection();
+        verify(replicaA, times(1)).getConnection();
+    }
+
+    @Test
+    void readsInsideAReadWriteTransactionStayOnThePrimary() throws SQLException {
+        route(Balancing.ROUND_ROBIN, replicaA);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            readOnReplica();
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            readOnReplica();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(primary, times(1)).getConnection();
+        verify(replicaA, times(1)).getConnection();
+    }
+
+    @Test
+    void roundRobinSkipsAReplicaThatFailedItsHealthCheck() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("Connection refused"));
+        route(Balancing.ROUND_ROBIN, replicaA, broken, replicaB);
+
+        for (int i = 0; i < 4; i++) {
+            readOnReplica();
+        }
+
+        assertEquals(2, routing.healthyReplicas());
+        verify(replicaA, times(2)).getConnection();
+        verify(replicaB, times(2)).getConnection();
+        verify(broken, never()).getConnection();
+        assertEquals(0.0, meterRegistry.get("bookstore.datasource.replica.healthy").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileNoReplicaIsHealthy() throws SQLException {
+        route(Balancing.ROUND_ROBIN, replicaA);
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        routing.checkHealth();
+        clearInvocations(replicaA);
+
+        readOnReplica();
+
+        verify(primary, times(1)).getConnection();
+        verify(replicaA, never()).getConnection();
+        assertEquals(1.0, meterRegistry.get("bookstore.datasource.replica.reads").tag("target", "primary").counter().count());
+
+        reset(replicaA);
+        when(replicaA.getConnection()).thenAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            return connection;
+        });
+        routing.checkHealth();
+        readOnReplica();
+
+        verify(primary, times(1)).getConnection();
+        assertEquals(1.0, meterRegistry.get("bookstore.datasource.replica.reads").tag("target", "replica").counter().count());
+    }
+
+    @Test
+    void leastLatencyPrefersTheFasterReplica() throws SQLException {
+        when(replicaA.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            return connection;
+        });
+        route(Balancing.LEAST_LATENCY, replicaA, replicaB);
+
+        for (int i = 0; i < 3; i++) {
+            readOnReplica();
+        }
+
+        verify(replicaB, times(3)).getConnection();
+        verify(replicaA, never()).getConnection();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.BookStore.BookStore.DataSources;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two embedded databases standing in for a primary and its replica. Nothing
+ * replicates between them, so which one answered shows in the data: the
+ * replica's copy of the book carries a different name.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "bookstore.datasource.replicas.enabled=true",
+        "bookstore.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "bookstore.datasource.replicas.health-check-interval=1h",
+        "bookstore.datasource.replicas.read-your-writes-window=10m"
+})
+public class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String READ_ISBN = "9780000000001";
+    private static final String RENTED_ISBN = "9780000000002";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    public void setUp() {
+        replica.execute("drop all objects");
+        new JdbcTemplate(primaryDataSource).queryForList("script nodata", String.class).stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+    }
+
+    private void bookOnBoth(String isbn) {
+        bookRepository.save(new BookEntity(null, "Primary Title", "Author", isbn, "Publisher", 10.0, 5.0, 3, 3, 0));
+        replica.update("insert into book_entity (name, author, isbn, publisher, security_amount, price, " +
+                "total_quantity, available_quantity, rented_quantity) values ('Replica Title', 'Author', ?, 'Publisher', 10.0, 5.0, 3, 3, 0)", isbn);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    public void catalogReadsAreServedByTheReplica() {
+        bookOnBoth(READ_ISBN);
+
+        assertEquals("Replica Title", bookService.getBookByIsbn(READ_ISBN).getName());
+        assertEquals("Replica Title", bookService.getBooksByName("Replica Title").get(0).getName());
+        assertEquals(List.of("Replica Title"), bookService.getAllBooks().stream().map(BookDTO::getName).toList());
+        assertEquals(List.of("Replica Title"), bookService.getBooksPage(null, 10).getBooks().stream().map(BookDTO::getName).toList());
+    }
+
+    @Test
+    public void rentalsAndTheReadsAfterThemUseThePrimary() {
+        bookOnBoth(RENTED_ISBN);
+
+        BookDTO rented = bookService.rentBook(RENTED_ISBN);
+        assertEquals("Primary Title", rented.getName());
+        assertEquals(2, rented.getAvailableQuantity());
+
+        BookDTO read = bookService.getBookByIsbn(RENTED_ISBN);
+        assertEquals("Primary Title", read.getName());
+        assertEquals(1, read.getRentedQuantity());
+        assertEquals(3, replica.queryForObject("select available_quantity from book_entity where isbn = ?", Integer.class, RENTED_ISBN));
+
+        bookService.returnBook(RENTED_ISBN);
+    }
+}
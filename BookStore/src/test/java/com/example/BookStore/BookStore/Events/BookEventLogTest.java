@@ -0,0 +1,145 @@
+package com.example.BookStore.BookStore.Events;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookEventLogTest {
+    private static final String ISBN = "9780000000001";
+
+    @TempDir
+    Path directory;
+
+    private BookEventLog open(int segmentSize) throws IOException {
+        return new BookEventLog(directory, segmentSize, Duration.ofHours(1));
+    }
+
+    @Test
+    void recordsRoundTrip() throws IOException {
+        try (BookEventLog log = open(4096)) {
+            log.onBookChanged(new BookChangedEvent(ChangeType.ADDED, ISBN, new BookDTO("Book", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0)));
+            log.append(ChangeType.RENTED, ISBN, 2, 1);
+            log.append(ChangeType.ADDED, "legacy-isbn", 1, 0);
+
+            List<BookEventRecord> records = new ArrayList<>();
+            long next = log.read(0, records::add);
+
+            assertEquals(3, next);
+            assertEquals(List.of(ChangeType.ADDED, ChangeType.RENTED, ChangeType.ADDED), records.stream().map(BookEventRecord::type).toList());
+            assertEquals(ISBN, records.get(1).isbn());
+            assertEquals(2, records.get(1).availableQuantity());
+            assertEquals(1, records.get(1).rentedQuantity());
+            assertEquals("legacy-isbn", records.get(2).isbn());
+        }
+    }
+
+    @Test
+    void rebuildUsesTheLatestRecordForAnIsbn() throws IOException {
+        try (BookEventLog log = open(4096)) {
+            log.append(ChangeType.ADDED, ISBN, 3, 0);
+            log.append(ChangeType.ADDED, "9780000000002", 1, 0);
+            log.append(ChangeType.RENTED, ISBN, 2, 1);
+            log.append(ChangeType.DELETED, "9780000000002", 1, 0);
+
+            BookEventRecord latest = log.rebuild(ISBN).orElseThrow();
+            assertEquals(2, latest.availableQuantity());
+            assertEquals(1, latest.rentedQuantity());
+            assertTrue(log.rebuild("9780000000002").isEmpty());
+        }
+    }
+
+    @Test
+    void rebuildFollowsCommitOrderWhenCommitsAreLoggedOutOfOrder() throws IOException {
+        try (BookEventLog log = open(4096)) {
+            List<TransactionSynchronization> first = inTransaction(() -> log.onBookChanged(
+                    new BookChangedEvent(ChangeType.RENTED, ISBN, new BookDTO("Book", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 2, 1))));
+            List<TransactionSynchronization> second = inTransaction(() -> log.onBookChanged(
+                    new BookChangedEvent(ChangeType.RENTED, ISBN, new BookDTO("Book", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 1, 2))));
+
+            TransactionSynchronizationUtils.invokeAfterCommit(second);
+            TransactionSynchronizationUtils.invokeAfterCommit(first);
+
+            BookEventRecord latest = log.rebuild(ISBN).orElseThrow();
+            assertEquals(1, latest.availableQuantity());
+            assertEquals(2, latest.rentedQuantity());
+        }
+        try (BookEventLog log = open(4096)) {
+            log.append(ChangeType.RETURNED, ISBN, 2, 1);
+
+            assertEquals(2, log.rebuild(ISBN).orElseThrow().availableQuantity());
+        }
+    }
+
+    /**
+     * Runs the listener the way its BEFORE_COMMIT phase would and returns what
+     * it registered for after the commit.
+     */
+    private static List<TransactionSynchronization> inTransaction(Runnable beforeCommit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beforeCommit.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void segmentsRollAndConsumersResumeFromASequence() throws IOException {
+        try (BookEventLog log = open(128)) {
+            for (int i = 0; i < 10; i++) {
+                log.append(ChangeType.RENTED, ISBN, 10 - i, i);
+            }
+            List<BookEventRecord> tail = new ArrayList<>();
+            log.read(7, tail::add);
+
+            assertEquals(List.of(7L, 8L, 9L), tail.stream().map(BookEventRecord::sequence).toList());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1);
+        }
+    }
+
+    @Test
+    void reopenContinuesAfterTheLastIntactRecord() throws IOException {
+        try (BookEventLog log = open(4096)) {
+            log.append(ChangeType.ADDED, ISBN, 3, 0);
+            log.append(ChangeType.RENTED, ISBN, 2, 1);
+            log.sync();
+            assertEquals(2, log.durableSequence());
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), 2 * 49 + 20);
+            channel.write(ByteBuffer.allocate(4).putInt(0, 41), 2 * 49);
+        }
+
+        try (BookEventLog log = open(4096)) {
+            assertEquals(2, log.append(ChangeType.RETURNED, ISBN, 3, 0));
+            List<BookEventRecord> records = new ArrayList<>();
+            log.read(0, records::add);
+            assertEquals(3, records.size());
+            assertEquals(ChangeType.RETURNED, records.get(2).type());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.BookStore.BookStore.Invalidation;
+
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvalidationBusTest {
+    private final String group = UUID.randomUUID().toString();
+    private final List<BooksInvalidatedEvent> senderEvents = new CopyOnWriteArrayList<>();
+    private final List<BooksInvalidatedEvent> receiverEvents = new CopyOnWriteArrayList<>();
+    private final InvalidationBus sender = bus(senderEvents);
+    private final InvalidationBus receiver = bus(receiverEvents);
+
+    private InvalidationBus bus(List<BooksInvalidatedEvent> events) {
+        InvalidationBus bus = new InvalidationBus(new InMemoryInvalidationTransport(group),
+                event -> events.add((BooksInvalidatedEvent) event), Duration.ofHours(1), Duration.ofHours(1), new SimpleMeterRegistry());
+        try {
+            bus.start();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bus;
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        sender.close();
+        receiver.close();
+    }
+
+    private static BookChangedEvent changed(String isbn) {
+        return new BookChangedEvent(BookChangedEvent.ChangeType.RENTED, isbn, null);
+    }
+
+    @Test
+    void changesAreBatchedDeduplicatedAndNotEchoed() {
+        sender.onBookChanged(changed("9780000000001"));
+        sender.onBookChanged(changed("9780000000002"));
+        sender.onBookChanged(changed("9780000000001"));
+
+        sender.flush();
+
+        assertEquals(1, receiverEvents.size());
+        assertEquals(Set.of("9780000000001", "9780000000002"), new HashSet<>(receiverEvents.get(0).getIsbns()));
+        assertFalse(receiverEvents.get(0).isAll());
+        assertTrue(senderEvents.isEmpty());
+    }
+
+    @Test
+    void largeBatchesAreSplitIntoDatagramSizedMessages() {
+        for (int i = 0; i < 500; i++) {
+            sender.onBookChanged(changed(String.format("978%010d", i)));
+        }
+
+        sender.flush();
+
+        assertTrue(receiverEvents.size() > 1);
+        assertEquals(500, receiverEvents.stream().mapToInt(event -> event.getIsbns().size()).sum());
+        assertTrue(receiverEvents.stream().noneMatch(BooksInvalidatedEvent::isAll));
+    }
+
+    @Test
+    void aSequenceGapInvalidatesEverything() {
+        UUID node = UUID.randomUUID();
+        receiver.receive(InvalidationBus.encode(node, 1, List.of("9780000000001")));
+        receiver.receive(InvalidationBus.encode(node, 3, List.of()));
+
+        assertEquals(2, receiverEvents.size());
+        assertTrue(receiverEvents.get(1).isAll());
+    }
+
+    @Test
+    void aSenderFirstSeenMidSequenceInvalidatesEverything() {
+        UUID node = UUID.randomUUID();
+        receiver.receive(InvalidationBus.encode(node, 2, List.of("9780000000002")));
+        receiver.receive(InvalidationBus.encode(node, 3, List.of()));
+
+        assertEquals(1, receiverEvents.size());
+        assertTrue(receiverEvents.get(0).isAll());
+    }
+
+    @Test
+    void malformedMessagesAreDropped() {
+        receiver.receive(new byte[]{42});
+        receiver.receive(new byte[]{1, 2, 3});
+
+        assertTrue(receiverEvents.isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.BookStore.BookStore.Invalidation;
+
+import com.example.BookStore.BookStore.BookStoreApplication;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two instances sharing one database, each with its own near caches, joined by
+ * the in-memory invalidation transport.
+ */
+public class MultiNodeInvalidationTest {
+    private static final String ISBN = "9780000000001";
+    private static final Duration STALENESS_BOUND = Duration.ofSeconds(1);
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private static ConfigurableApplicationContext node() {
+        return new SpringApplicationBuilder(BookStoreApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:multi_node;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--bookstore.cache.isbn.ttl=10m",
+                "--bookstore.catalog.snapshot.enabled=true",
+                "--bookstore.invalidation.enabled=true",
+                "--bookstore.invalidation.transport=memory",
+                "--bookstore.invalidation.memory.group=multi-node-test",
+                "--bookstore.invalidation.batch-interval=20ms");
+    }
+
+    @BeforeAll
+    public static void startNodes() {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        nodeA.getBean(BookRepository.class).deleteAll();
+    }
+
+    private static long availableOn(ConfigurableApplicationContext node) {
+        return node.getBean(BookService.class).getBookByIsbn(ISBN).getAvailableQuantity();
+    }
+
+    private static boolean listedOn(ConfigurableApplicationContext node) {
+        try {
+            return !node.getBean(BookService.class).getBooksByName("Hot Title").isEmpty();
+        } catch (ResourceNotFound e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void aRentOnOneNodeReachesTheOtherNodesCachesWithinTheBound() throws InterruptedException {
+        nodeA.getBean(BookService.class).addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0));
+        long deadline = System.nanoTime() + STALENESS_BOUND.toNanos();
+        while (!listedOn(nodeB) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(3, availableOn(nodeB));
+
+        long rentedAt = System.nanoTime();
+        nodeA.getBean(BookService.class).rentBook(ISBN);
+        while (availableOn(nodeB) != 2 && System.nanoTime() - rentedAt < STALENESS_BOUND.toNanos() * 5) {
+            Thread.sleep(5);
+        }
+        Duration stale = Duration.ofNanos(System.nanoTime() - rentedAt);
+
+        assertEquals(2, availableOn(nodeB));
+        assertTrue(stale.compareTo(STALENESS_BOUND) < 0, "node B was stale for " + stale);
+        assertTrue(nodeB.getBean(MeterRegistry.class).get("bookstore.invalidation.received").counter().count() >= 1);
+    }
+}
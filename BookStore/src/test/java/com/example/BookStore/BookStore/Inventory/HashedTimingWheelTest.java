@@ -0,0 +1,55 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HashedTimingWheelTest {
+    private final List<List<Integer>> batches = new ArrayList<>();
+    private final HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(10, 8, 1_000, batches::add);
+
+    @Test
+    void deadlinesFireOnTheirTickAndNeverEarly() {
+        wheel.schedule(1, 1_025);
+        wheel.schedule(2, 1_040);
+
+        assertEquals(0, wheel.advance(1_029));
+        assertEquals(1, wheel.advance(1_030));
+        assertEquals(0, wheel.advance(1_039));
+        assertEquals(1, wheel.advance(1_040));
+        assertEquals(List.of(List.of(1), List.of(2)), batches);
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForTheirRound() {
+        wheel.schedule(1, 1_000 + 10 * 8 * 3 + 20);
+
+        assertEquals(0, wheel.advance(1_000 + 10 * 8 * 3 + 10));
+        assertEquals(1, wheel.advance(1_000 + 10 * 8 * 3 + 20));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        wheel.advance(1_100);
+        wheel.schedule(1, 0);
+
+        assertEquals(1, wheel.advance(1_110));
+    }
+
+    @Test
+    void everythingDueInOneAdvanceIsOneBatch() {
+        for (int i = 0; i < 5_000; i++) {
+            wheel.schedule(i, 1_000 + i % 500);
+        }
+        wheel.schedule(-1, 2_000);
+
+        assertEquals(5_000, wheel.advance(1_500));
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).containsAll(List.of(0, 499, 4_999)));
+        assertEquals(1, wheel.advance(2_000));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryCountersTest {
+    private static final String ISBN = "9780000000001";
+
+    private final InventoryCounters counters = new InventoryCounters(true, 2);
+    private final AtomicInteger available = new AtomicInteger(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private int load(String isbn) {
+        loads.incrementAndGet();
+        return available.get();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(int status) {
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(), status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void aRolledBackRentalGivesItsPermitBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(counters.tryAcquire(ISBN, this::load));
+        assertEquals(0, counters.available(ISBN));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(1, counters.available(ISBN));
+    }
+
+    @Test
+    void aReturnCountsOnlyOnceItCommits() {
+        assertTrue(counters.tryAcquire(ISBN, this::load));
+        TransactionSynchronizationManager.initSynchronization();
+        counters.release(ISBN);
+        assertEquals(0, counters.available(ISBN));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, counters.available(ISBN));
+    }
+
+    @Test
+    void aCounterThatRefusesIsCheckedAgainstTheDatabaseOnce() {
+        assertTrue(counters.tryAcquire(ISBN, this::load));
+        available.set(1);
+
+        assertTrue(counters.tryAcquire(ISBN, this::load));
+        assertEquals(2, loads.get());
+
+        available.set(0);
+        assertFalse(counters.tryAcquire(ISBN, this::load));
+        assertEquals(3, loads.get());
+    }
+}
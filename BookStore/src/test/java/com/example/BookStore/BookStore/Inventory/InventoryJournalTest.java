@@ -0,0 +1,257 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import com.example.BookStore.BookStore.Inventory.InventoryJournal.Delta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaySumsDeltasPerIsbn() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.replay(0);
+            journal.start();
+            journal.append(List.of(new Delta("9780000000001", -1, 1)));
+            journal.append(List.of(new Delta("9780000000001", -1, 1), new Delta("9780000000002", 1, -1)));
+        }
+
+        Map<String, Delta> replayed = new InventoryJournal(directory).replay(0);
+
+        assertEquals(new Delta("9780000000001", -2, 2), replayed.get("9780000000001"));
+        assertEquals(new Delta("9780000000002", 1, -1), replayed.get("9780000000002"));
+    }
+
+    @Test
+    void generationsAtOrBelowTheCheckpointAreSkipped() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.replay(0);
+            journal.start();
+            journal.append(List.of(new Delta("9780000000001", -1, 1)));
+            long sealed = journal.rotate();
+            journal.append(List.of(new Delta("9780000000001", -5, 5)));
+            assertEquals(1, sealed);
+        }
+
+        InventoryJournal reopened = new InventoryJournal(directory);
+        Map<String, Delta> replayed = reopened.replay(1);
+
+        assertEquals(new Delta("9780000000001", -5, 5), replayed.get("9780000000001"));
+        assertEquals(2, reopened.generation());
+    }
+
+    @Test
+    void tornTailIsIgnored() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.replay(0);
+            journal.start();
+            journal.append(List.of(new Delta("9780000000001", -1, 1)));
+        }
+        Path file = onlyFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 21, 0, 13, '9', '7'}));
+        }
+
+        assertEquals(List.of(new Delta("9780000000001", -1, 1)), InventoryJournal.read(file));
+    }
+
+    @Test
+    void aCartTornMidRecordIsDroppedWhole() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.replay(0);
+            journal.start();
+            journal.append(List.of(new Delta("9780000000001", -1, 1)));
+            journal.append(List.of(new Delta("9780000000002", -1, 1), new Delta("9780000000003", -2, 2)));
+        }
+        Path file = onlyFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 12);
+        }
+
+        assertEquals(List.of(new Delta("9780000000001", -1, 1)), InventoryJournal.read(file));
+    }
+
+    @Test
+    void deleteUpToRemovesSealedGenerationsOnly() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory)) {
+            journal.replay(0);
+            journal.start();
+            long sealed = journal.rotate();
+            journal.deleteUpTo(sealed);
+        }
+
+        assertTrue(onlyFile().getFileName().toString().endsWith("00002.journal"));
+    }
+
+    @Test
+    void aFailedWriteLeavesNoBytesBehind() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory, FailingChannel::open)) {
+            journal.replay(0);
+            journal.start();
+            FailingChannel.failWrites = true;
+            assertThrows(IOException.class, () -> journal.append(List.of(new Delta("9780000000001", -1, 1))));
+            FailingChannel.failWrites = false;
+            journal.append(List.of(new Delta("9780000000002", -1, 1)));
+        }
+
+        assertEquals(List.of(new Delta("9780000000002", -1, 1)), InventoryJournal.read(onlyFile()));
+    }
+
+    @Test
+    void aFailedForceIsNotReplayedAndTheJournalMovesOn() throws IOException {
+        try (InventoryJournal journal = new InventoryJournal(directory, FailingChannel::open)) {
+            journal.replay(0);
+            journal.start();
+            journal.append(List.of(new Delta("9780000000001", -1, 1)));
+            FailingChannel.failForce = true;
+            assertThrows(IOException.class, () -> journal.append(List.of(new Delta("9780000000002", -1, 1))));
+            FailingChannel.failForce = false;
+            journal.append(List.of(new Delta("9780000000003", -1, 1)));
+            assertEquals(2, journal.generation());
+        }
+
+        Map<String, Delta> replayed = new InventoryJournal(directory).replay(0);
+
+        assertEquals(Set.of("9780000000001", "9780000000003"), replayed.keySet());
+    }
+
+    /**
+     * A file channel that fails writes half way through, or forces, on demand.
+     */
+    private static final class FailingChannel extends FileChannel {
+        static volatile boolean failWrites;
+        static volatile boolean failForce;
+
+        private final FileChannel delegate;
+
+        private FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        static FileChannel open(Path file) throws IOException {
+            return new FailingChannel(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites) {
+                ByteBuffer half = src.slice().limit(src.remaining() / 2);
+                src.position(src.position() + delegate.write(half));
+                throw new IOException("disk full");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("fsync failed");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private Path onlyFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> all = files.toList();
+            assertEquals(1, all.size());
+            return all.get(0);
+        }
+    }
+}
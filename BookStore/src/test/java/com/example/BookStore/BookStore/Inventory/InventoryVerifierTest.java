@@ -0,0 +1,121 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Entities.BookReservation;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Repositiories.BookReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = {
+        "bookstore.inventory.verifier.chunk-size=2",
+        "bookstore.inventory.verifier.repair=true"
+})
+public class InventoryVerifierTest {
+    @Autowired
+    private InventoryVerifier inventoryVerifier;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookReservationRepository reservationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BookMapper bookMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    public void tearDown() {
+        reservationRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    private BookEntity save(String isbn, Integer total, Integer available, Integer rented) {
+        return bookRepository.save(new BookEntity(null, "Book", "Author", isbn, "Publisher", 10.0, 5.0, total, available, rented));
+    }
+
+    private BookEntity row(String isbn) {
+        return bookRepository.findByIsbn(isbn).orElseThrow();
+    }
+
+    private double drifted() {
+        return meterRegistry.get("bookstore.inventory.verifier.drifted").counter().count();
+    }
+
+    private double repaired() {
+        return meterRegistry.get("bookstore.inventory.verifier.repaired").counter().count();
+    }
+
+    @Test
+    public void aPassReportsEveryDriftedRowAndRepairsOnlyBrokenCounts() {
+        save("9780000000001", 5, 3, 2);
+        save("9780000000002", 9, 3, 2);
+        save("9780000000003", 5, 2, 1);
+        reservationRepository.save(new BookReservation(null, "9780000000003", 2, Long.MAX_VALUE));
+        save("9780000000004", 0, -1, 0);
+        save("9780000000005", 4, 2, 1);
+        double driftedBefore = drifted();
+        double repairedBefore = repaired();
+
+        inventoryVerifier.verifyAll();
+
+        assertEquals(5, row("9780000000001").getTotalQuantity());
+        assertEquals(9, row("9780000000002").getTotalQuantity());
+        assertEquals(5, row("9780000000003").getTotalQuantity());
+        BookEntity negative = row("9780000000004");
+        assertEquals(0, negative.getTotalQuantity());
+        assertEquals(0, negative.getAvailableQuantity());
+        assertEquals(0, negative.getRentedQuantity());
+        assertEquals(4, row("9780000000005").getTotalQuantity());
+        assertEquals(3.0, drifted() - driftedBefore);
+        assertEquals(1.0, repaired() - repairedBefore);
+    }
+
+    @Test
+    public void byDefaultDriftIsOnlyReported() {
+        save("9780000000001", 0, -1, 0);
+        InventoryVerifier reportOnly = new InventoryVerifier(false, false, 2, Duration.ofMillis(200), Duration.ofHours(1),
+                jdbcTemplate, transactionManager, bookRepository, bookMapper, eventPublisher, meterRegistry);
+        double driftedBefore = drifted();
+
+        reportOnly.verifyAll();
+
+        assertEquals(-1, row("9780000000001").getAvailableQuantity());
+        assertEquals(1.0, drifted() - driftedBefore);
+    }
+
+    @Test
+    public void chunksEndWithTheLastIdAndThePassEndsWithNull() {
+        BookEntity first = save("9780000000001", 1, 1, 0);
+        BookEntity second = save("9780000000002", 1, 1, 0);
+        save("9780000000003", 1, 1, 0);
+
+        assertEquals(second.getId(), inventoryVerifier.verifyChunk(0L));
+        assertNull(inventoryVerifier.verifyChunk(second.getId()));
+        assertEquals(second.getId(), inventoryVerifier.verifyChunk(first.getId() - 1));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
+import com.example.BookStore.BookStore.Inventory.InventoryWriteBehindBuffer.Stock;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Services.BookService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "bookstore.inventory.write-behind.enabled=true",
+        "bookstore.inventory.write-behind.journal-dir=${java.io.tmpdir}/bookstore-journal-${random.uuid}",
+        "bookstore.inventory.write-behind.flush-interval=1h",
+        "bookstore.inventory.write-behind.flush-threshold=1000"
+})
+public class InventoryWriteBehindBufferTest {
+    private static final String ISBN = "9780000000001";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private InventoryWriteBehindBuffer inventoryBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path crashDirectory;
+
+    @AfterEach
+    public void tearDown() {
+        inventoryBuffer.flush();
+        bookRepository.deleteAll();
+    }
+
+    private BookEntity row() {
+        return bookRepository.findByIsbn(ISBN).orElseThrow();
+    }
+
+    @Test
+    public void rentalsAreCheckedAgainstTheBufferAndFlushedInOneBatch() {
+        bookService.addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0));
+
+        for (int i = 0; i < 3; i++) {
+            bookService.rentBook(ISBN);
+        }
+        assertThrows(ResourceNotAvailable.class, () -> bookService.rentBook(ISBN));
+        BookDTO returned = bookService.returnBook(ISBN);
+
+        assertEquals(1, returned.getAvailableQuantity());
+        assertEquals(2, returned.getRentedQuantity());
+        assertEquals(3, row().getAvailableQuantity());
+        assertEquals(1, bookService.getBookByIsbn(ISBN).getAvailableQuantity());
+
+        inventoryBuffer.flush();
+
+        assertEquals(1, row().getAvailableQuantity());
+        assertEquals(2, row().getRentedQuantity());
+    }
+
+    @Test
+    public void directWritesFlushFirstAndReseedTheBuffer() {
+        bookService.addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0));
+        bookService.rentBook(ISBN);
+
+        bookService.updateBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 11, 10, 1));
+        BookDTO rented = bookService.rentBook(ISBN);
+
+        assertEquals(9, rented.getAvailableQuantity());
+        assertEquals(2, rented.getRentedQuantity());
+    }
+
+    @Test
+    public void acknowledgedRentalsSurviveACrash() throws Exception {
+        bookRepository.save(new BookEntity(null, "Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 5, 5, 0));
+        InventoryWriteBehindBuffer crashed = buffer();
+        crashed.start();
+        TreeMap<String, Integer> copies = new TreeMap<>();
+        copies.put(ISBN, 2);
+        assertTrue(crashed.tryRent(copies, isbn -> new Stock(row().getAvailableQuantity(), row().getRentedQuantity())).isEmpty());
+        assertEquals(5, row().getAvailableQuantity());
+
+        InventoryWriteBehindBuffer restarted = buffer();
+        restarted.start();
+        restarted.stop();
+        buffer().start();
+
+        assertEquals(3, row().getAvailableQuantity());
+        assertEquals(2, row().getRentedQuantity());
+        try (var files = Files.list(crashDirectory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void rentalsWaitForADirectWriteToCommit() throws Exception {
+        bookService.addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0));
+        bookService.rentBook(ISBN);
+        CountDownLatch drained = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Thread writer = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryBuffer.drain(List.of(ISBN));
+            jdbcTemplate.update("update book_entity set total_quantity = 11, available_quantity = 10 where isbn = ?", ISBN);
+            drained.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        writer.start();
+        drained.await();
+
+        CompletableFuture<BookDTO> rented = CompletableFuture.supplyAsync(() -> bookService.rentBook(ISBN));
+        Thread.sleep(200);
+        assertFalse(rented.isDone());
+        commit.countDown();
+        writer.join();
+
+        assertEquals(9, rented.get(5, TimeUnit.SECONDS).getAvailableQuantity());
+    }
+
+    @Test
+    public void refusesToStartAlongsideOtherInstances() {
+        assertThrows(IllegalStateException.class, () -> new InventoryWriteBehindBuffer(true, crashDirectory,
+                Duration.ofHours(1), 1000, "guard", true, false, jdbcTemplate, transactionManager, new SimpleMeterRegistry()));
+        assertThrows(IllegalStateException.class, () -> new InventoryWriteBehindBuffer(true, crashDirectory,
+                Duration.ofHours(1), 1000, "guard", false, true, jdbcTemplate, transactionManager, new SimpleMeterRegistry()));
+    }
+
+    private InventoryWriteBehindBuffer buffer() {
+        return new InventoryWriteBehindBuffer(true, crashDirectory, Duration.ofHours(1), 1000, "crash-test",
+                false, false, jdbcTemplate, transactionManager, new SimpleMeterRegistry());
+    }
+}
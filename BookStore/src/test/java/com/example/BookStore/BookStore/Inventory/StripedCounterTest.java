@@ -0,0 +1,73 @@
+package com.example.BookStore.BookStore.Inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedCounterTest {
+
+    @Test
+    void initialPermitsAreSpreadAcrossStripes() {
+        StripedCounter counter = new StripedCounter(4, 10);
+
+        assertEquals(10, counter.sum());
+    }
+
+    @Test
+    void decrementDrainsOtherStripesBeforeFailing() {
+        StripedCounter counter = new StripedCounter(8, 3);
+
+        assertTrue(counter.tryDecrement());
+        assertTrue(counter.tryDecrement());
+        assertTrue(counter.tryDecrement());
+        assertFalse(counter.tryDecrement());
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void concurrentRentAndReturnNeverOversells() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 20_000;
+        int copies = 500;
+        StripedCounter counter = new StripedCounter(8, copies);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int held = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (counter.tryDecrement()) {
+                        held++;
+                    }
+                    if (held > 0 && i % 3 == 0) {
+                        counter.increment();
+                        held--;
+                    }
+                }
+                return held;
+            }));
+        }
+        start.countDown();
+
+        int held = 0;
+        for (Future<Integer> result : results) {
+            held += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(held <= copies);
+        assertEquals(copies, held + counter.sum());
+    }
+}
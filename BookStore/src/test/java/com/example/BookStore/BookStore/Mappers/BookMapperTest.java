@@ -0,0 +1,61 @@
+package com.example.BookStore.BookStore.Mappers;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookMapperTest {
+    private final BookMapper bookMapper = new BookMapper();
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private final BookEntity bookEntity = new BookEntity(7L, "Name", "Author", "1234567890123", "Publisher", 50.0, 12.5, 10, 6, 4);
+
+    @Test
+    void toDTOMatchesModelMapper() {
+        BookDTO expected = modelMapper.map(bookEntity, BookDTO.class);
+        BookDTO actual = bookMapper.toDTO(bookEntity);
+
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getIsbn(), actual.getIsbn());
+        assertEquals(expected.getPublisher(), actual.getPublisher());
+        assertEquals(expected.getSecurityAmount(), actual.getSecurityAmount());
+        assertEquals(expected.getPrice(), actual.getPrice());
+        assertEquals(expected.getTotalQuantity(), actual.getTotalQuantity());
+        assertEquals(expected.getAvailableQuantity(), actual.getAvailableQuantity());
+        assertEquals(expected.getRentedQuantity(), actual.getRentedQuantity());
+    }
+
+    @Test
+    void toEntityLeavesIdUnset() {
+        BookEntity entity = bookMapper.toEntity(bookMapper.toDTO(bookEntity));
+
+        assertNull(entity.getId());
+        assertEquals("1234567890123", entity.getIsbn());
+        assertEquals(12.5, entity.getPrice());
+        assertEquals(4, entity.getRentedQuantity());
+    }
+
+    @Test
+    void toDTOListKeepsOrder() {
+        BookEntity other = new BookEntity(8L, "Other", "Author", "1234567890124", "Publisher", 50.0, 12.5, 1, 1, 0);
+
+        List<BookDTO> bookDTOs = bookMapper.toDTOList(List.of(bookEntity, other));
+
+        assertEquals(2, bookDTOs.size());
+        assertEquals("Name", bookDTOs.get(0).getName());
+        assertEquals("Other", bookDTOs.get(1).getName());
+    }
+
+    @Test
+    void nullMapsToNull() {
+        assertNull(bookMapper.toDTO(null));
+        assertNull(bookMapper.toEntity(null));
+        assertNull(bookMapper.copy(null));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.BookStore.BookStore.Metrics;
+
+import com.example.BookStore.BookStore.DTO.BookCartDTO;
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class QueryCountInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    private DistributionSummary queries(String method, String uri) {
+        return meterRegistry.get("bookstore.db.queries.per.request").tag("method", method).tag("uri", uri).summary();
+    }
+
+    @Test
+    public void queriesAreCountedPerEndpoint() throws Exception {
+        BookDTO bookDTO = new BookDTO("Book", "Author", "9780000000001", "Publisher", 10.0, 5.0, 3, 3, 0);
+        mockMvc.perform(post("/book").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(bookDTO)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/book/rentBook/{isbn}", "9780000000001"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, queries("POST", "/book").count());
+        assertTrue(queries("POST", "/book").max() >= 1);
+        assertEquals(1, queries("PUT", "/book/rentBook/{isbn}").count());
+        assertEquals(2, queries("PUT", "/book/rentBook/{isbn}").max());
+        assertEquals(1.0, meterRegistry.get("bookstore.inventory.operations").tag("operation", "rent").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    public void writesTakeASingleStatement() throws Exception {
+        BookDTO bookDTO = new BookDTO("Book", "Author", "9780000000002", "Publisher", 10.0, 5.0, 3, 3, 0);
+        String body = objectMapper.writeValueAsString(bookDTO);
+        mockMvc.perform(post("/book").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/book").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/book/updateBook").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/book/delete/{isbn}", "9780000000002"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, queries("POST", "/book").max());
+        assertEquals(2, queries("PUT", "/book/updateBook").max());
+        assertEquals(2, queries("DELETE", "/book/delete/{isbn}").max());
+    }
+
+    @Test
+    public void cartRentLocksOnceAndBatchesUpdates() throws Exception {
+        for (int i = 3; i <= 5; i++) {
+            bookRepository.save(new BookEntity(null, "Book", "Author", "978000000000" + i, "Publisher", 10.0, 5.0, 3, 3, 0));
+        }
+        BookCartDTO cart = new BookCartDTO(List.of("9780000000005", "9780000000003", "9780000000004"));
+        mockMvc.perform(put("/book/rentBooks").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(cart)))
+                .andExpect(status().isOk());
+
+        assertEquals(2, queries("PUT", "/book/rentBooks").max());
+    }
+}
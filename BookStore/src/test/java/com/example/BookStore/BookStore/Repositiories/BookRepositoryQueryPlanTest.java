@@ -0,0 +1,198 @@
+package com.example.BookStore.BookStore.Repositiories;
+
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every {@link BookRepository} query against the migrated schema on an
+ * embedded database, captures the SQL Hibernate sends and fails if the
+ * {@code EXPLAIN} plan of any statement scans a whole table. A query added to
+ * the repository without a case here fails the suite too.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query_plans;MODE=MySQL;DB_CLOSE_DELAY=-1")
+public class BookRepositoryQueryPlanTest {
+    private static final String ISBN = "9780000000001";
+    private static final int ROWS = 500;
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Queries that read the whole table on purpose.
+     */
+    private static final Set<String> FULL_SCANS = Set.of("streamAllBy", "findAllBookDTOs");
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class StatementCapture {
+        @Bean
+        static BeanPostProcessor statementCapturingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                        return new DelegatingDataSource(dataSource) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                return capturing(super.getConnection());
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        private static Connection capturing(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                            STATEMENTS.add(sql);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    private Map<String, Consumer<BookRepository>> queries() {
+        Map<String, Consumer<BookRepository>> queries = new LinkedHashMap<>();
+        BookEntity book = new BookEntity(null, "Title 7", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0);
+        queries.put("findByName", repository -> repository.findByName("Title 7"));
+        queries.put("findByIsbn", repository -> repository.findByIsbn(ISBN));
+        queries.put("deleteByIsbn", repository -> repository.deleteByIsbn(ISBN));
+        queries.put("existsByIsbn", repository -> repository.existsByIsbn(ISBN));
+        queries.put("findForUpdateByIsbn", repository -> repository.findForUpdateByIsbn(ISBN));
+        queries.put("findAllForUpdateByIsbnIn", repository -> repository.findAllForUpdateByIsbnIn(List.of(ISBN)));
+        queries.put("findExistingIsbns", repository -> repository.findExistingIsbns(List.of(ISBN)));
+        queries.put("findBookDTOsByName", repository -> repository.findBookDTOsByName("Title 7"));
+        queries.put("findBookDTOByIsbn", repository -> repository.findBookDTOByIsbn(ISBN));
+        queries.put("findAllBookDTOs", BookRepository::findAllBookDTOs);
+        queries.put("findByIdGreaterThanOrderByIdAsc", repository -> repository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(20)));
+        queries.put("streamAllBy", repository -> {
+            try (var books = repository.streamAllBy()) {
+                books.limit(1).forEach(bookEntity -> { });
+            }
+        });
+        queries.put("updateByIsbn", repository -> repository.updateByIsbn(book));
+        queries.put("deleteUnrentedByIsbn", repository -> repository.deleteUnrentedByIsbn(ISBN));
+        queries.put("findAvailableQuantityByIsbn", repository -> repository.findAvailableQuantityByIsbn(ISBN));
+        queries.put("rentByIsbn", repository -> repository.rentByIsbn(ISBN));
+        queries.put("returnByIsbn", repository -> repository.returnByIsbn(ISBN));
+        queries.put("holdByIsbn", repository -> repository.holdByIsbn(ISBN, 1));
+        queries.put("releaseHeldByIsbn", repository -> repository.releaseHeldByIsbn(ISBN, 1));
+        queries.put("rentHeldByIsbn", repository -> repository.rentHeldByIsbn(ISBN, 1));
+        queries.put("findByIsbnIn", repository -> repository.findByIsbnIn(List.of(ISBN)));
+        return queries;
+    }
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("delete from book_reservation");
+        jdbcTemplate.update("delete from book_entity");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{"Title " + i, String.format("97800000%05d", i)});
+        }
+        jdbcTemplate.batchUpdate("insert into book_entity (name, author, isbn, publisher, security_amount, price, " +
+                "total_quantity, available_quantity, rented_quantity) values (?, 'Author', ?, 'Publisher', 10.0, 5.0, 3, 3, 0)", rows);
+        jdbcTemplate.update("insert into book_reservation (id, isbn, quantity, expires_at) values ('r1', ?, 1, 0)", ISBN);
+        jdbcTemplate.execute("analyze");
+    }
+
+    private List<String> capture(Consumer<BookRepository> query) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            query.accept(bookRepository);
+            status.setRollbackOnly();
+        });
+        return STATEMENTS.stream()
+                .filter(sql -> !sql.stripLeading().toLowerCase().startsWith("insert"))
+                .toList();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setString(i, "1");
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    StringBuilder text = new StringBuilder();
+                    while (plan.next()) {
+                        text.append(plan.getString(1)).append('\n');
+                    }
+                    return text.toString();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void everyRepositoryQueryHasAPlanCheck() {
+        Set<String> declared = Arrays.stream(BookRepository.class.getDeclaredMethods())
+                .map(Method::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+        assertEquals(declared, new TreeSet<>(queries().keySet()));
+    }
+
+    @Test
+    public void noRepositoryQueryScansAWholeTable() {
+        List<String> regressions = new ArrayList<>();
+        queries().forEach((name, query) -> {
+            List<String> statements = capture(query);
+            assertTrue(!statements.isEmpty(), name + " sent no SQL");
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains("tableScan") && !FULL_SCANS.contains(name)) {
+                    regressions.add(name + ":\n" + plan);
+                }
+            }
+        });
+        assertTrue(regressions.isEmpty(), "Full table scans:\n" + String.join("\n", regressions));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.BookStore.BookStore.Search;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookSearchIndexTest {
+    private BookSearchIndex index;
+
+    private static BookDTO book(String name, String author, String isbn, String publisher) {
+        return new BookDTO(name, author, isbn, publisher, 10.0, 5.0, 1, 1, 0);
+    }
+
+    private static List<String> isbns(BookSearchIndex.SearchResult result) {
+        return result.books().stream().map(BookDTO::getIsbn).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.upsert(book("The Lord of the Rings", "J. R. R. Tolkien", "0000000000001", "Allen & Unwin"));
+        index.upsert(book("The Hobbit", "J. R. R. Tolkien", "0000000000002", "Allen & Unwin"));
+        index.upsert(book("Lords and Ladies", "Terry Pratchett", "0000000000003", "Gollancz"));
+        index.upsert(book("Les Misérables", "Victor Hugo", "0000000000004", "Lacroix"));
+    }
+
+    @Test
+    void prefixMatchesAreCaseInsensitive() {
+        assertEquals(List.of("0000000000002", "0000000000001"), isbns(index.search("TOLK", 0, 10)));
+    }
+
+    @Test
+    void exactNameMatchesOutrankPrefixMatches() {
+        assertEquals(List.of("0000000000003"), isbns(index.search("lords", 0, 10)));
+        assertEquals(List.of("0000000000001", "0000000000003"), isbns(index.search("lord", 0, 10)));
+    }
+
+    @Test
+    void everyQueryTokenMustMatch() {
+        assertEquals(List.of("0000000000001"), isbns(index.search("lord tolkien", 0, 10)));
+    }
+
+    @Test
+    void accentsAreFolded() {
+        assertEquals(List.of("0000000000004"), isbns(index.search("miserables", 0, 10)));
+    }
+
+    @Test
+    void resultsArePaginated() {
+        BookSearchIndex.SearchResult page = index.search("allen", 1, 1);
+
+        assertEquals(2, page.totalHits());
+        assertEquals(List.of("0000000000001"), isbns(page));
+    }
+
+    @Test
+    void aPageFarPastTheEndIsEmpty() {
+        BookSearchIndex.SearchResult page = index.search("allen", Integer.MAX_VALUE, 100);
+
+        assertEquals(2, page.totalHits());
+        assertTrue(page.books().isEmpty());
+    }
+
+    @Test
+    void updatesReplaceOldTokensAndRemovesDropThem() {
+        index.upsert(book("The Silmarillion", "J. R. R. Tolkien", "0000000000002", "Allen & Unwin"));
+
+        assertTrue(index.search("hobbit", 0, 10).books().isEmpty());
+        assertEquals(List.of("0000000000002"), isbns(index.search("silm", 0, 10)));
+
+        index.remove("0000000000002");
+
+        assertTrue(index.search("silm", 0, 10).books().isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void blankQueryFindsNothing() {
+        assertEquals(0, index.search("  ", 0, 10).totalHits());
+    }
+}
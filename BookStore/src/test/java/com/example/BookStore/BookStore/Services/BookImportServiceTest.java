@@ -0,0 +1,130 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BulkImportReport;
+import com.example.BookStore.BookStore.DTO.BulkImportRowResult;
+import com.example.BookStore.BookStore.DTO.BulkImportRowResult.Status;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BooksImportedEvent;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "bookstore.import.chunk-size=2")
+@RecordApplicationEvents
+public class BookImportServiceTest {
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String json(String name, String isbn) {
+        return "{\"name\":\"" + name + "\",\"author\":\"Author\",\"isbn\":\"" + isbn + "\",\"publisher\":\"Publisher\"," +
+                "\"securityAmount\":10.0,\"price\":5.0,\"availableQuantity\":3,\"rentedQuantity\":1}";
+    }
+
+    @Test
+    public void testImportJsonArrayReportsEveryRow() throws Exception {
+        bookRepository.save(new BookEntity(null, "Existing", "Author", "9780000000004", "Publisher", 1.0, 1.0, 1, 1, 0));
+        String content = "[" + String.join(",",
+                json("One", "9780000000001"),
+                json("", "9780000000002"),
+                json("Three", "9780000000001"),
+                json("Four", "9780000000004"),
+                json("Five", "9780000000005")) + "]";
+
+        BulkImportReport report = bookImportService.importBooks(body(content), MediaType.APPLICATION_JSON, false);
+
+        assertEquals(5, report.getTotal());
+        assertEquals(2, report.getInserted());
+        assertEquals(3, report.getRejected());
+        List<Status> statuses = report.getRows().stream().map(BulkImportRowResult::getStatus).toList();
+        assertEquals(List.of(Status.INSERTED, Status.INVALID, Status.DUPLICATE, Status.DUPLICATE, Status.INSERTED), statuses);
+
+        BookEntity imported = bookRepository.findByIsbn("9780000000005").orElseThrow();
+        assertEquals(4, imported.getTotalQuantity());
+        assertEquals(3, imported.getAvailableQuantity());
+        assertEquals(3, bookRepository.count());
+    }
+
+    @Test
+    public void testImportNdjsonErrorsOnly() throws Exception {
+        String content = json("One", "9780000000001") + "\n" + json("Two", "123") + "\n" + json("Three", "9780000000003") + "\n";
+
+        BulkImportReport report = bookImportService.importBooks(body(content), MediaType.APPLICATION_NDJSON, true);
+
+        assertEquals(3, report.getTotal());
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getRows().size());
+        assertEquals(2, report.getRows().get(0).getRow());
+        assertEquals(Status.INVALID, report.getRows().get(0).getStatus());
+    }
+
+    @Test
+    public void testImportCsv() throws Exception {
+        String content = "name,author,isbn,publisher,securityAmount,price,availableQuantity,rentedQuantity\n" +
+                "One,Author,9780000000001,Publisher,10.0,5.0,2,0\n" +
+                "Two,Author,9780000000002,Publisher,10.0,5.0,,\n" +
+                "Three,Author,9780000000003,Publisher,10.0,-5.0,1,0\n";
+
+        BulkImportReport report = bookImportService.importBooks(body(content), BookImportService.TEXT_CSV, false);
+
+        assertEquals(3, report.getTotal());
+        assertEquals(2, report.getInserted());
+        assertEquals(Status.INVALID, report.getRows().get(2).getStatus());
+        assertEquals(0, bookRepository.findByIsbn("9780000000002").orElseThrow().getAvailableQuantity());
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    public void testMalformedBodyStopsWithAReportedRow() throws Exception {
+        String content = json("One", "9780000000001") + "\n{\"name\": broken\n";
+
+        BulkImportReport report = bookImportService.importBooks(body(content), MediaType.APPLICATION_NDJSON, false);
+
+        assertEquals(1, report.getInserted());
+        assertEquals(Status.INVALID, report.getRows().get(1).getStatus());
+        assertEquals(2, report.getRows().get(1).getRow());
+        assertEquals(BulkImportReport.Status.ABORTED, report.getStatus());
+        assertEquals(2, report.getAbortedAtLine());
+    }
+
+    @Test
+    public void testEachCommittedChunkIsPublishedOnce() throws Exception {
+        String content = json("One", "9780000000001") + "\n" + json("Two", "9780000000002") + "\n" + json("Three", "9780000000003") + "\n";
+
+        BulkImportReport report = bookImportService.importBooks(body(content), MediaType.APPLICATION_NDJSON, true);
+
+        assertEquals(BulkImportReport.Status.COMPLETED, report.getStatus());
+        assertTrue(report.getRows().isEmpty());
+        List<List<String>> chunks = applicationEvents.stream(BooksImportedEvent.class).map(BooksImportedEvent::getIsbns).toList();
+        assertEquals(List.of(List.of("9780000000001", "9780000000002"), List.of("9780000000003")), chunks);
+        assertEquals(0, applicationEvents.stream(BookChangedEvent.class).count());
+    }
+}
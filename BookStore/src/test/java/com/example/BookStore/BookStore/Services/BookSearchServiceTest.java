@@ -0,0 +1,74 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+import com.example.BookStore.BookStore.Events.BooksInvalidatedEvent;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookSearchServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Spy
+    private BookMapper bookMapper;
+
+    @InjectMocks
+    private BookSearchService bookSearchService;
+
+    private static BookEntity entity(long id, String name, String isbn) {
+        return new BookEntity(id, name, "Author", isbn, "Publisher", 10.0, 5.0, 1, 1, 0);
+    }
+
+    private static BookDTO book(String name, String isbn) {
+        return new BookDTO(name, "Author", isbn, "Publisher", 10.0, 5.0, 1, 1, 0);
+    }
+
+    private long hits(String query) {
+        return bookSearchService.search(query, 0, 10).getTotalHits();
+    }
+
+    @Test
+    public void aFullInvalidationDropsBooksDeletedElsewhere() {
+        bookSearchService.onBookChanged(new BookChangedEvent(ChangeType.ADDED, "9780000000001", book("Gone", "9780000000001")));
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(entity(2, "Kept", "9780000000002")));
+
+        bookSearchService.onBooksInvalidated(new BooksInvalidatedEvent(List.of(), true));
+
+        assertEquals(0, hits("gone"));
+        assertEquals(1, hits("kept"));
+    }
+
+    @Test
+    public void aDeleteDuringTheScanIsNotUndoneByTheScannedRow() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            bookSearchService.onBookChanged(new BookChangedEvent(ChangeType.DELETED, "9780000000001", null));
+            bookSearchService.onBookChanged(new BookChangedEvent(ChangeType.ADDED, "9780000000003", book("Late", "9780000000003")));
+            return List.of(entity(1, "Deleted", "9780000000001"));
+        });
+
+        bookSearchService.rebuild();
+
+        assertEquals(0, hits("deleted"));
+        assertEquals(1, hits("late"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "bookstore.inventory.counters.enabled=true")
+public class BookServiceConcurrencyTest {
+    private static final String ISBN = "9780000000001";
+    private static final int COPIES = 40;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    public void concurrentRentersNeverOversell() throws Exception {
+        bookService.addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, COPIES, COPIES, 0));
+        AtomicInteger rented = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 10; i++) {
+                try {
+                    bookService.rentBook(ISBN);
+                    rented.incrementAndGet();
+                } catch (ResourceNotAvailable e) {
+                    soldOut.incrementAndGet();
+                }
+            }
+        });
+
+        BookEntity book = bookRepository.findByIsbn(ISBN).orElseThrow();
+        assertEquals(COPIES, rented.get());
+        assertEquals(THREADS * 10 - COPIES, soldOut.get());
+        assertEquals(0, book.getAvailableQuantity());
+        assertEquals(COPIES, book.getRentedQuantity());
+    }
+
+    @Test
+    public void interleavedRentAndReturnKeepTotalsConsistent() throws Exception {
+        bookService.addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 5, 5, 0));
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 25; i++) {
+                try {
+                    bookService.rentBook(ISBN);
+                    bookService.returnBook(ISBN);
+                } catch (ResourceNotAvailable e) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+
+        BookEntity book = bookRepository.findByIsbn(ISBN).orElseThrow();
+        assertEquals(5, book.getAvailableQuantity());
+        assertEquals(0, book.getRentedQuantity());
+        assertThrows(ResourceNotFound.class, () -> bookService.returnBook(ISBN));
+    }
+
+    @Test
+    public void overlappingCartsNeitherDeadlockNorOversell() throws Exception {
+        String other = "9780000000002";
+        bookService.addBook(new BookDTO("Hot Title", "Author", ISBN, "Publisher", 10.0, 5.0, COPIES, COPIES, 0));
+        bookService.addBook(new BookDTO("Other Title", "Author", other, "Publisher", 10.0, 5.0, COPIES, COPIES, 0));
+        AtomicInteger carts = new AtomicInteger();
+        AtomicInteger turn = new AtomicInteger();
+
+        runConcurrently(() -> {
+            boolean reversed = turn.getAndIncrement() % 2 == 0;
+            for (int i = 0; i < 5; i++) {
+                try {
+                    bookService.rentBooks(reversed ? List.of(other, ISBN) : List.of(ISBN, other));
+                    carts.incrementAndGet();
+                } catch (ResourceNotAvailable e) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+
+        assertEquals(COPIES, carts.get());
+        assertEquals(COPIES, bookRepository.findByIsbn(ISBN).orElseThrow().getRentedQuantity());
+        assertEquals(0, bookRepository.findByIsbn(other).orElseThrow().getAvailableQuantity());
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    }
+}
@@ -1,18 +1,36 @@
 package com.example.BookStore.BookStore.Services;
 
+import com.example.BookStore.BookStore.Caches.BookIsbnCache;
+import com.example.BookStore.BookStore.Caches.RequestCoalescer;
 import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.BookPageDTO;
+import com.example.BookStore.BookStore.DataSources.RecentWrites;
 import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Exception.ResourceAlreadyExist;
 import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
 import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Inventory.InventoryCounters;
+import com.example.BookStore.BookStore.Inventory.InventoryWriteBehindBuffer;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Metrics.InventoryMetrics;
 import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -26,8 +44,37 @@ public class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Spy
+    private BookMapper bookMapper = new BookMapper();
+
     @Mock
-    private ModelMapper modelMapper;
+    private EntityManager entityManager;
+
+    @Spy
+    private InventoryCounters inventoryCounters = new InventoryCounters(false, 1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(meterRegistry);
+
+    @Spy
+    private BookIsbnCache bookIsbnCache = new BookIsbnCache(100, Duration.ofMinutes(1), meterRegistry, new BookMapper());
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private InventoryWriteBehindBuffer inventoryBuffer = new InventoryWriteBehindBuffer(false, Path.of("unused"), Duration.ofSeconds(1), 1, "test", false, false, null, null, meterRegistry);
+
+    @Spy
+    private CatalogSnapshotService catalogSnapshotService = new CatalogSnapshotService(false, null, null);
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(true, Duration.ofSeconds(1), meterRegistry);
+
+    @Spy
+    private RecentWrites recentWrites = new RecentWrites(Duration.ofSeconds(2), 1000);
 
     @InjectMocks
     private BookService bookService;
@@ -53,22 +100,31 @@ public class BookServiceTest {
 
     @Test
     public void testAddBook() {
-        when(modelMapper.map(BookDTO, BookEntity.class)).thenReturn(bookEntity);
-        when(bookRepository.save(bookEntity)).thenReturn(bookEntity);
-        when(modelMapper.map(bookEntity, BookDTO.class)).thenReturn(BookDTO);
+        when(bookRepository.save(any(BookEntity.class))).thenReturn(bookEntity);
 
         BookDTO savedBookDTO = bookService.addBook(BookDTO);
 
         assertNotNull(savedBookDTO);
         assertEquals("Test Book", savedBookDTO.getName());
-        verify(bookRepository, times(1)).save(bookEntity);
+        verify(bookRepository, times(1)).save(any(BookEntity.class));
+        verify(bookRepository, never()).existsByIsbn(anyString());
+    }
+
+    @Test
+    public void testAddBookDuplicateIsbn() {
+        ConstraintViolationException violation = new ConstraintViolationException("duplicate", null,
+                "insert into book_entity", ConstraintViolationException.ConstraintKind.UNIQUE, "uk_isbn");
+        when(bookRepository.save(any(BookEntity.class))).thenThrow(new DataIntegrityViolationException("duplicate", violation));
+
+        assertThrows(ResourceAlreadyExist.class, () -> bookService.addBook(BookDTO));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     public void testGetBookByName() {
-        when(bookRepository.findByName("Test Book")).thenReturn(Collections.singletonList(bookEntity));
+        List<BookDTO> found = List.of(bookMapper.toDTO(bookEntity));
+        when(bookRepository.findBookDTOsByName("Test Book")).thenReturn(found);
 
-        when(modelMapper.map(bookEntity, BookDTO.class)).thenReturn(BookDTO);
 
         List<BookDTO> foundBookDTOList = bookService.getBooksByName("Test Book");
 
@@ -77,113 +133,244 @@ public class BookServiceTest {
         assertEquals("Test Book", foundBookDTOList.get(0).getName());
 
         assertEquals("1234567890123", foundBookDTOList.get(0).getIsbn());
-        verify(bookRepository, times(1)).findByName("Test Book");
+        verify(bookRepository, times(1)).findBookDTOsByName("Test Book");
     }
 
     @Test
     public void testGetBookByNameNotFound() {
-        when(bookRepository.findByName("Test Book")).thenReturn(Collections.emptyList());
+        when(bookRepository.findBookDTOsByName("Test Book")).thenReturn(Collections.emptyList());
 
         ResourceNotFound exception = assertThrows(ResourceNotFound.class, () -> bookService.getBooksByName("Test Book"));
 
         assertEquals("No book of this name found", exception.getMessage());
     }
 
+    @Test
+    public void testGetBookByIsbnIsServedFromCache() {
+        Optional<BookDTO> found = Optional.of(bookMapper.toDTO(bookEntity));
+        when(bookRepository.findBookDTOByIsbn("1234567890123")).thenReturn(found);
+
+        BookDTO first = bookService.getBookByIsbn("1234567890123");
+        first.setName("Mutated by caller");
+        BookDTO second = bookService.getBookByIsbn("1234567890123");
+
+        assertEquals("Test Book", second.getName());
+        verify(bookRepository, times(1)).findBookDTOByIsbn("1234567890123");
+    }
+
+    @Test
+    public void testGetBookByIsbnNotFound() {
+        when(bookRepository.findBookDTOByIsbn("1234567890123")).thenReturn(Optional.empty());
+
+        ResourceNotFound exception = assertThrows(ResourceNotFound.class, () -> bookService.getBookByIsbn("1234567890123"));
+
+        assertEquals("No Book of this ISBN found", exception.getMessage());
+    }
+
+    @Test
+    public void testGetBooksPage() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1))).thenReturn(List.of(bookEntity));
+
+        BookPageDTO page = bookService.getBooksPage(null, 1);
+
+        assertEquals(1, page.getBooks().size());
+        assertEquals(1L, page.getNextCursor());
+    }
+
+    @Test
+    public void testGetBooksPageLastPage() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(BookService.MAX_PAGE_SIZE))).thenReturn(List.of(bookEntity));
+
+        BookPageDTO page = bookService.getBooksPage(1L, 5000);
+
+        assertEquals(1, page.getBooks().size());
+        assertNull(page.getNextCursor());
+    }
+
     @Test
     public void testUpdateBook() {
         BookDTO.setIsbn("1234567890123");
 
-        when(bookRepository.existsByIsbn("1234567890123")).thenReturn(true);
+        when(bookRepository.updateByIsbn(any(BookEntity.class))).thenReturn(1);
         when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
-        when(modelMapper.map(BookDTO, BookEntity.class)).thenReturn(bookEntity);
-        when(bookRepository.save(bookEntity)).thenReturn(bookEntity);
-        when(modelMapper.map(bookEntity, BookDTO.class)).thenReturn(BookDTO);
 
         BookDTO updatedBookDTO = bookService.updateBook(BookDTO);
 
         assertNotNull(updatedBookDTO);
         assertEquals("Test Book", updatedBookDTO.getName());
 
-        verify(bookRepository, times(1)).existsByIsbn("1234567890123");
-        verify(bookRepository, times(1)).findByIsbn("1234567890123");
-        verify(bookRepository, times(1)).save(bookEntity);
+        verify(bookRepository, times(1)).updateByIsbn(argThat(entity -> entity.getIsbn().equals("1234567890123")));
+        verify(bookRepository, never()).save(any(BookEntity.class));
+    }
+
+    @Test
+    public void testUpdateBookNotFound() {
+        when(bookRepository.updateByIsbn(any(BookEntity.class))).thenReturn(0);
+
+        assertThrows(ResourceNotFound.class, () -> bookService.updateBook(BookDTO));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     public void testDeleteBookByIsbn() {
         bookEntity.setIsbn("1234567890123");
-        BookDTO.setIsbn("1234567890123");
 
-        when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
+        when(bookRepository.findForUpdateByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
+        when(bookRepository.deleteUnrentedByIsbn("1234567890123")).thenReturn(1);
 
         BookDTO deletedBookDTO = bookService.deleteBookByIsbn("1234567890123");
 
-        assertNull(deletedBookDTO);
-        verify(bookRepository, times(1)).deleteByIsbn("1234567890123");
+        assertEquals("1234567890123", deletedBookDTO.getIsbn());
+        verify(bookRepository, times(1)).deleteUnrentedByIsbn("1234567890123");
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BookChangedEvent changed
+                && changed.getType() == BookChangedEvent.ChangeType.DELETED && changed.getBook() == deletedBookDTO));
+    }
+
+    @Test
+    public void testDeleteBookWithRentedCopies() {
+        when(bookRepository.findForUpdateByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
+        when(bookRepository.deleteUnrentedByIsbn("1234567890123")).thenReturn(0);
+
+        assertThrows(ResourceNotAvailable.class, () -> bookService.deleteBookByIsbn("1234567890123"));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testDeleteBookDeletedConcurrently() {
+        when(bookRepository.findForUpdateByIsbn("1234567890123")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFound.class, () -> bookService.deleteBookByIsbn("1234567890123"));
+        verify(bookRepository, never()).deleteUnrentedByIsbn(anyString());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     public void testRentBook() {
         bookEntity.setIsbn("1234567890123");
         bookEntity.setName("Test Book");
-        bookEntity.setAvailableQuantity(10);
-        bookEntity.setRentedQuantity(0);
+        bookEntity.setAvailableQuantity(9);
+        bookEntity.setRentedQuantity(1);
 
         BookDTO.setIsbn("1234567890123");
         BookDTO.setName("Test Book");
         BookDTO.setAvailableQuantity(9);
         BookDTO.setRentedQuantity(1);
 
+        when(bookRepository.rentByIsbn("1234567890123")).thenReturn(1);
         when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
-        when(bookRepository.saveAndFlush(bookEntity)).thenReturn(bookEntity);
-        when(modelMapper.map(bookEntity, BookDTO.class)).thenReturn(BookDTO);
 
         BookDTO rentedBookDTO = bookService.rentBook("1234567890123");
 
         assertNotNull(rentedBookDTO);
-        assertEquals(1, bookEntity.getRentedQuantity());
-        assertEquals(9, bookEntity.getAvailableQuantity());
+        assertEquals(1, rentedBookDTO.getRentedQuantity());
+        assertEquals(9, rentedBookDTO.getAvailableQuantity());
 
-        verify(bookRepository, times(1)).saveAndFlush(bookEntity);
+        verify(bookRepository, times(1)).rentByIsbn("1234567890123");
+        verify(bookRepository, never()).saveAndFlush(any());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BookChangedEvent changed
+                && changed.getType() == BookChangedEvent.ChangeType.RENTED));
     }
 
     @Test
     public void testRentBookWithNoAvailableCopies() {
         bookEntity.setAvailableQuantity(0);
+        when(bookRepository.rentByIsbn("1234567890123")).thenReturn(0);
         when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
 
         ResourceNotAvailable exception = assertThrows(ResourceNotAvailable.class, () -> bookService.rentBook("1234567890123"));
 
         assertEquals("All the Books are Rented", exception.getMessage());
+        assertEquals(1.0, meterRegistry.get("bookstore.inventory.operations").tag("outcome", "sold_out").counter().count());
+    }
+
+    @Test
+    public void testRentBookNotFound() {
+        when(bookRepository.rentByIsbn("1234567890123")).thenReturn(0);
+        when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.empty());
+
+        ResourceNotFound exception = assertThrows(ResourceNotFound.class, () -> bookService.rentBook("1234567890123"));
+
+        assertEquals("ISBN not found!!", exception.getMessage());
     }
 
     @Test
     public void testReturnBook() {
         bookEntity.setIsbn("1234567890123");
         bookEntity.setName("Test Book");
-        bookEntity.setAvailableQuantity(12);
-        bookEntity.setRentedQuantity(12);
+        bookEntity.setAvailableQuantity(13);
+        bookEntity.setRentedQuantity(11);
 
         BookDTO.setIsbn("1234567890123");
         BookDTO.setName("Test Book");
         BookDTO.setAvailableQuantity(13);
         BookDTO.setRentedQuantity(11);
 
+        when(bookRepository.returnByIsbn("1234567890123")).thenReturn(1);
         when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
-        when(bookRepository.saveAndFlush(bookEntity)).thenReturn(bookEntity);
-        when(modelMapper.map(bookEntity, BookDTO.class)).thenReturn(BookDTO);
 
         BookDTO returnedBookDTO = bookService.returnBook("1234567890123");
 
         assertNotNull(returnedBookDTO);
-        assertEquals(11, bookEntity.getRentedQuantity());
-        assertEquals(13, bookEntity.getAvailableQuantity());
+        assertEquals(11, returnedBookDTO.getRentedQuantity());
+        assertEquals(13, returnedBookDTO.getAvailableQuantity());
+
+        verify(bookRepository, times(1)).returnByIsbn("1234567890123");
+        verify(bookRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void testRentBooks() {
+        BookEntity other = new BookEntity(2L, "Other Book", "Author", "1234567890124", "Publisher", 10.0, 5.0, 3, 3, 0);
+        when(bookRepository.findAllForUpdateByIsbnIn(any())).thenReturn(List.of(bookEntity, other));
+
+        List<BookDTO> rented = bookService.rentBooks(List.of("1234567890124", "1234567890123", "1234567890123"));
+
+        assertEquals(2, rented.size());
+        assertEquals(8, bookEntity.getAvailableQuantity());
+        assertEquals(2, bookEntity.getRentedQuantity());
+        assertEquals(2, other.getAvailableQuantity());
+        assertEquals(1, other.getRentedQuantity());
+        verify(bookRepository).findAllForUpdateByIsbnIn(argThat(isbns -> List.copyOf(isbns).equals(List.of("1234567890123", "1234567890124"))));
+        verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+        assertEquals(3.0, meterRegistry.get("bookstore.inventory.operations").tag("operation", "rent").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    public void testRentBooksIsAllOrNothing() {
+        BookEntity soldOut = new BookEntity(2L, "Other Book", "Author", "1234567890124", "Publisher", 10.0, 5.0, 1, 0, 1);
+        when(bookRepository.findAllForUpdateByIsbnIn(any())).thenReturn(List.of(bookEntity, soldOut));
+
+        assertThrows(ResourceNotAvailable.class, () -> bookService.rentBooks(List.of("1234567890123", "1234567890124")));
+        assertEquals(10, bookEntity.getAvailableQuantity());
+        assertEquals(0, bookEntity.getRentedQuantity());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testRentBooksUnknownIsbn() {
+        when(bookRepository.findAllForUpdateByIsbnIn(any())).thenReturn(List.of(bookEntity));
+
+        ResourceNotFound e = assertThrows(ResourceNotFound.class, () -> bookService.rentBooks(List.of("1234567890123", "0000000000000")));
+        assertTrue(e.getMessage().contains("0000000000000"));
+    }
+
+    @Test
+    public void testReturnBooks() {
+        bookEntity.setAvailableQuantity(8);
+        bookEntity.setRentedQuantity(2);
+        when(bookRepository.findAllForUpdateByIsbnIn(any())).thenReturn(List.of(bookEntity));
+
+        List<BookDTO> returned = bookService.returnBooks(List.of("1234567890123", "1234567890123"));
 
-        verify(bookRepository, times(1)).saveAndFlush(bookEntity);
+        assertEquals(1, returned.size());
+        assertEquals(10, returned.get(0).getAvailableQuantity());
+        assertEquals(0, returned.get(0).getRentedQuantity());
+        assertThrows(ResourceNotFound.class, () -> bookService.returnBooks(List.of("1234567890123")));
     }
 
     @Test
     public void testReturnBookWithNoRentedCopies() {
+        when(bookRepository.returnByIsbn("1234567890123")).thenReturn(0);
         when(bookRepository.findByIsbn("1234567890123")).thenReturn(Optional.of(bookEntity));
 
         ResourceNotFound exception = assertThrows(ResourceNotFound.class, () -> bookService.returnBook("1234567890123"));
@@ -0,0 +1,87 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.Events.BookChangedEvent;
+import com.example.BookStore.BookStore.Events.BookChangedEvent.ChangeType;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Mappers.BookMapper;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "bookstore.catalog.snapshot.enabled=true")
+public class CatalogSnapshotServiceTest {
+    private static final String ISBN = "9780000000001";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+        catalogSnapshotService.load();
+    }
+
+    @Test
+    public void readsAreServedFromTheSnapshotAndFollowWrites() {
+        assertTrue(catalogSnapshotService.isReady());
+        bookService.addBook(new BookDTO("Snapshot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 3, 0));
+        bookService.rentBook(ISBN);
+
+        assertEquals(2, catalogSnapshotService.getByIsbn(ISBN).getAvailableQuantity());
+        assertEquals(1, bookService.getBooksByName("Snapshot Title").size());
+        assertEquals(1, bookService.getAllBooks().size());
+
+        bookService.returnBook(ISBN);
+        bookService.deleteBookByIsbn(ISBN);
+
+        assertNull(catalogSnapshotService.getByIsbn(ISBN));
+        assertThrows(ResourceNotFound.class, () -> bookService.getBooksByName("Snapshot Title"));
+    }
+
+    @Test
+    public void aFailedLoadKeepsTheLiveSnapshotFollowingWrites() {
+        BookRepository failing = mock(BookRepository.class);
+        CatalogSnapshotService service = new CatalogSnapshotService(true, failing, new BookMapper());
+        service.load();
+        when(failing.count()).thenAnswer(invocation -> {
+            service.onBookChanged(new BookChangedEvent(ChangeType.ADDED, ISBN, book()));
+            throw new QueryTimeoutException("load failed");
+        });
+
+        assertThrows(QueryTimeoutException.class, service::load);
+        service.onBookChanged(new BookChangedEvent(ChangeType.UPDATED, ISBN, book()));
+
+        assertTrue(service.isReady());
+        assertEquals(2, service.getByIsbn(ISBN).getAvailableQuantity());
+    }
+
+    @Test
+    public void aFailedFirstLoadLeavesTheSnapshotOff() {
+        BookRepository failing = mock(BookRepository.class);
+        when(failing.count()).thenThrow(new QueryTimeoutException("load failed"));
+        CatalogSnapshotService service = new CatalogSnapshotService(true, failing, new BookMapper());
+
+        assertThrows(QueryTimeoutException.class, service::load);
+        service.onBookChanged(new BookChangedEvent(ChangeType.ADDED, ISBN, book()));
+
+        assertFalse(service.isReady());
+    }
+
+    private static BookDTO book() {
+        return new BookDTO("Snapshot Title", "Author", ISBN, "Publisher", 10.0, 5.0, 3, 2, 1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.BookStore.BookStore.Services;
+
+import com.example.BookStore.BookStore.DTO.BookDTO;
+import com.example.BookStore.BookStore.DTO.ReservationDTO;
+import com.example.BookStore.BookStore.Entities.BookEntity;
+import com.example.BookStore.BookStore.Exception.ResourceNotAvailable;
+import com.example.BookStore.BookStore.Exception.ResourceNotFound;
+import com.example.BookStore.BookStore.Repositiories.BookRepository;
+import com.example.BookStore.BookStore.Repositiories.BookReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "bookstore.reservations.ttl=1s",
+        "bookstore.reservations.tick=20ms",
+        "bookstore.reservations.wheel-size=64",
+        "bookstore.reservations.batch-size=7"
+})
+public class ReservationServiceTest {
+    private static final String ISBN = "9780000000001";
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookReservationRepository reservationRepository;
+
+    @BeforeEach
+    public void setUp() {
+        bookService.addBook(new BookDTO("Name", "Author", ISBN, "Publisher", 10.0, 5.0, 30, 30, 0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        reservationRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    private BookEntity row() {
+        return bookRepository.findByIsbn(ISBN).orElseThrow();
+    }
+
+    @Test
+    public void holdTakesCopiesOffAvailabilityAndRentingKeepsThem() {
+        ReservationDTO reservation = reservationService.hold(ISBN, 3);
+        assertEquals(27, row().getAvailableQuantity());
+
+        BookDTO rented = reservationService.rent(reservation.getId());
+
+        assertEquals(27, rented.getAvailableQuantity());
+        assertEquals(3, rented.getRentedQuantity());
+        assertEquals(0, reservationRepository.count());
+        assertSame(ResourceNotFound.NO_RESERVATION, assertThrows(ResourceNotFound.class, () -> reservationService.rent(reservation.getId())));
+    }
+
+    @Test
+    public void cancellingReleasesTheCopies() {
+        ReservationDTO reservation = reservationService.hold(ISBN, 2);
+
+        BookDTO released = reservationService.cancel(reservation.getId());
+
+        assertEquals(30, released.getAvailableQuantity());
+        assertEquals(0, released.getRentedQuantity());
+    }
+
+    @Test
+    public void holdsBeyondAvailabilityAreRefused() {
+        reservationService.hold(ISBN, 30);
+
+        assertSame(ResourceNotAvailable.ALL_RENTED, assertThrows(ResourceNotAvailable.class, () -> reservationService.hold(ISBN, 1)));
+        assertThrows(ResourceNotFound.class, () -> reservationService.hold("9780000000999", 1));
+    }
+
+    @Test
+    public void booksWithHoldsCannotBeDeleted() {
+        ReservationDTO reservation = reservationService.hold(ISBN, 2);
+
+        assertSame(ResourceNotAvailable.HAS_RENTED_OR_HELD_COPIES,
+                assertThrows(ResourceNotAvailable.class, () -> bookService.deleteBookByIsbn(ISBN)));
+        reservationService.cancel(reservation.getId());
+        bookService.deleteBookByIsbn(ISBN);
+
+        assertFalse(bookRepository.existsByIsbn(ISBN));
+    }
+
+    @Test
+    public void updatesKeepRentalsAndHoldsAndDeriveTheTotal() {
+        bookService.rentBook(ISBN);
+        reservationService.hold(ISBN, 4);
+
+        BookDTO updated = bookService.updateBook(new BookDTO("Renamed", "Author", ISBN, "Publisher", 10.0, 5.0, 100, 40, 0));
+
+        assertEquals("Renamed", updated.getName());
+        assertEquals(40, updated.getAvailableQuantity());
+        assertEquals(1, updated.getRentedQuantity());
+        assertEquals(45, updated.getTotalQuantity());
+    }
+
+    @Test
+    public void lapsedHoldsAreReleasedInBatches() throws InterruptedException {
+        List<ReservationDTO> reservations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            reservations.add(reservationService.hold(ISBN, 1));
+        }
+        BookDTO claimed = reservationService.rent(reservations.get(0).getId());
+        assertEquals(10, claimed.getAvailableQuantity());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (reservationRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, reservationRepository.count());
+        assertEquals(29, row().getAvailableQuantity());
+        assertEquals(1, row().getRentedQuantity());
+        assertThrows(ResourceNotFound.class, () -> reservationService.cancel(reservations.get(1).getId()));
+    }
+}